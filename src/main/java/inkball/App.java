@@ -1,6 +1,7 @@
 package inkball;
 
 import processing.core.PApplet;
+import processing.core.PGraphics;
 import processing.core.PImage;
 import processing.core.PVector;
 import processing.data.JSONArray;
@@ -9,19 +10,25 @@ import processing.event.KeyEvent;
 import processing.event.MouseEvent;
 
 import javax.swing.*;
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
 
 
 /**
  * Main application class for the Inkball game.
  * This class extends PApplet to utilize Processing's graphics capabilities.
  */
-public class App extends PApplet{
+public class App extends PApplet implements CaptureHandler {
 
     // Constants for game settings
     public static final int CELLSIZE = 32;
@@ -34,25 +41,96 @@ public class App extends PApplet{
     public static final int BOARD_HEIGHT = 18;
     public static final int TOP_MARGIN = 70;
     public static final int INITIAL_PARACHUTES = 1;
-    public static final float FPS = 30.0f;
+    public static final float FPS = 30.0f; // Simulation steps per second
+
+    // Fixed-timestep simulation clock
+    static final long STEP_NANOS = (long) (1_000_000_000L / FPS);
+    static final int MAX_STEPS_PER_FRAME = 5;
+    private long lastFrameNanos = System.nanoTime();
+    private long accumulatedNanos = 0;
+    float renderAlpha = 1; // How far the frame being drawn is between the previous and current simulation step
+    static final float DEFAULT_RENDER_FPS = 60; // Frames drawn per second unless "render_fps" is set in the config
+
+    // Frame skipping
+    int maxFrameSkip = 0; // Overrun frames in a row that may skip rendering, set by "max_frame_skip" in the config
+    long frameBudgetNanos = (long) (1_000_000_000L / DEFAULT_RENDER_FPS); // Time each frame is meant to take
+    private int consecutiveSkips = 0; // Frames in a row whose rendering was skipped
+    int skippedFrames = 0; // Frames whose rendering was skipped since the game started
+
+    // Headless running
+    boolean headless = false; // Run without a window, images or rendering, selected by --headless
+    RenderSink renderSink = App::render; // Presents each frame after the simulation has been advanced
+    static final int DEFAULT_HEADLESS_STEPS = (int) (600 * FPS); // Ten minutes of game time
+
+    // Renderer backend
+    static final String DEFAULT_RENDERER = "JAVA2D";
+    String rendererName = DEFAULT_RENDERER; // Chosen by --renderer, or "renderer" in the config
+    int benchmarkFrames = 0; // Frames to time on each level when run with --benchmark, or 0 to play normally
+    private final FrameTimer levelFrameTimes = new FrameTimer();
+    private final FrameTimer benchmarkFrameTimes = new FrameTimer();
+    private long lastBenchmarkNanos; // When the previous benchmarked frame started, or 0 if it should not be timed
 
     // Game configuration and state
     JSONObject config;
     JSONArray levels;
+    LevelPack levelPack; // Compiled levels named by "level_pack" in the config, used instead of "levels" when set
+
+    // Level prefetching
+    private ExecutorService levelPrefetcher; // Prepares the next level in the background while the current one plays
+    private Future<PreparedLevel> nextLevel; // The level being prepared, or null if none is
+    private int nextLevelIndex = -1; // The index of the level being prepared
+    private PreparedLevel loadedLevel; // The level on the board, kept so restarting it does not read it again
     int currentLevelIndex = 0;
     private Level currentLevel;
     float timeBonus = 0;
 
     public String configPath;
-    private static Tile[][] grid;
-    private List<Drawable> drawables;
+    private static byte[][] tileCodes; // The kind of each board cell, one of the TileTemplate codes
+    private static final TileTemplate[] tileTemplates = new TileTemplate[TileTemplate.CODES]; // Shared by every cell with the same code
+    private Wall[][] wallGrid; // Walls indexed by cell for the collision broadphase
+    private SpeedTile[][] speedTileGrid; // Speed tiles indexed by cell for the boost lookup
+    private static final float SPEED_BOOST_RADIUS = 25; // Distance from a speed tile's centre within which it boosts a ball
+
+    // Static board layer
+    private PGraphics boardLayer; // Tiles, walls, holes, spawners and speed tiles rendered once per change
+    boolean boardLayerDirty = true; // Whether the board layer needs to be rendered again before it is drawn
+
+    // Player line layers
+    private PGraphics inkLayer; // Finished player lines, extended as lines are added
+    List<PlayerLine> inkedLines = new ArrayList<>(); // The finished lines drawn into the ink layer, in order
+    private int inkedCollidedLines; // How many of the inked lines had already been used up by a ball when drawn
+    private PGraphics strokeLayer; // The line still being drawn, extended as points are added
+    private PlayerLine strokeLine; // The line drawn into the stroke layer
+    private int strokePoints; // The number of points of the stroke line drawn into the stroke layer
+
+    // Dirty-rectangle rendering
+    boolean dirtyRectRendering = false; // Repaint only the changed parts of the window, set by "dirty_rect_rendering" in the config
+    private static final int MAX_DIRTY_REGIONS = 64;
+    final DirtyRegions dirtyRegions = new DirtyRegions(BOARD_WIDTH * CELLSIZE, BOARD_HEIGHT * CELLSIZE, MAX_DIRTY_REGIONS);
+    private boolean fullRepaintPending = true; // Whether the next dirty-rectangle frame has to repaint the whole window
+    private int lastHudState; // The HUD state drawn in the last dirty-rectangle frame
+    private float[] drawnBallBounds = new float[0]; // The bounds of each ball drawn last frame, as {left, top, right, bottom} groups
+    private int drawnBallCount; // The number of balls drawn last frame
+    int lastRepaintArea; // The number of board pixels repainted in the last dirty-rectangle frame
+
+    // Entities on the board, kept up to date as they are added and removed
+    BallList balls = new BallList();
+    private List<Wall> walls = new ArrayList<>();
+    private List<Hole> holes = new ArrayList<>();
+    private Hole[][][] holeInfluence; // Holes whose attraction radius reaches each cell
+    private static final Hole[] NO_HOLES = new Hole[0];
 
     // Image resources
-    private PImage wall0, wall1, wall2, wall3, wall4;
-    private PImage speedTile1, speedTile2, speedTile3, speedTile4;
-    private static PImage ball0, ball1, ball2, ball3, ball4;
-    private PImage spawner, hole;
-    private PImage tileBaseImage;
+    static final String[] IMAGE_NAMES = { // Images that are not on the sprite sheet and have files of their own
+            "speedTile1", "speedTile2", "speedTile3", "speedTile4"
+    };
+    private static final int IMAGE_LOADER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long LOADING_PROGRESS_INTERVAL_MS = 50; // How often the loading progress is shown while waiting for an image
+    private final Map<String, Sprite> images = new HashMap<>(); // Sprites that are ready to draw, by asset name
+    private final Map<String, Future<PImage>> pendingImages = new HashMap<>(); // Images still being decoded in the background
+    private static final Sprite[] ballImages = new Sprite[5]; // Ball sprites by type, shared with every ball
+    private static SpriteAtlas spriteAtlas; // The sprites on the sprite sheet, shared by every game
+    private boolean showingLoadingProgress = false; // Whether the window title currently shows the loading progress
 
     // Game state flags
     float levelTimer = 0;
@@ -78,23 +156,43 @@ public class App extends PApplet{
     // Game elements
     List<PlayerLine> playerLines;
     PlayerLine currentLine;
+    LineIndex lineIndex = new LineIndex(BOARD_WIDTH, BOARD_HEIGHT);
     Map<String, Integer> scoreIncreaseMap;
     Map<String, Integer> scoreDecreaseMap;
 
     // Ball sliding animation
+    private static final int QUEUE_BALL_SIZE = 24;
+    private static final int QUEUE_BALL_SPACING = 10;
     private boolean isSliding = false;
     private int slideProgress = 0;
     private String slidingBallColor = null;
+    private static final int QUEUE_BALLS_SHOWN = 5;
+    private PGraphics queueStrip; // The balls shown in the queue, redrawn only when they change
+    private int queueStripKey = -1; // The queue contents the strip was drawn for
+
+    // Cached HUD text
+    private static final int HUD_LABEL_WIDTH = 200;
+    private static final int HUD_LABEL_HEIGHT = 32;
+    final HudLabel scoreLabel = new HudLabel(HUD_LABEL_WIDTH, HUD_LABEL_HEIGHT, LEFT, TOP, 24, value -> "Score: " + value);
+    final HudLabel timeLabel = new HudLabel(HUD_LABEL_WIDTH, HUD_LABEL_HEIGHT, LEFT, TOP, 24, value -> "Time: " + value);
+    final HudLabel spawnLabel = new HudLabel(HUD_LABEL_WIDTH, HUD_LABEL_HEIGHT, LEFT, CENTER, 24, App::formatTenths);
 
     // Game score and ball management
     int score = 0;
     private int lastLevelScore = 0;
     List<Ball> ballsToRespawn = new ArrayList<>();
     List<Spawner> spawners = new ArrayList<>();
-    private List<SpeedTile> speedTiles = new ArrayList<>();
+    List<SpeedTile> speedTiles = new ArrayList<>();
     List<String> ballQueue = new ArrayList<>(); // Ungenerated Team Columns
     float spawnTimer;
 
+    // Parallel physics
+    static final int PHYSICS_CHUNK_SIZE = 512; // Balls handled by a single physics worker task
+    boolean parallelPhysics = true; // Spread the physics step across cores once there is more than one chunk of balls
+    private final ForkJoinPool physicsPool = ForkJoinPool.commonPool();
+    private final List<CommandBuffer> chunkBuffers = new ArrayList<>(); // Capture side effects recorded by each chunk
+    private boolean[] hitWall = new boolean[0]; // Whether each ball bounced off a wall in the current step
+
     /**
      * Constructor for the App class.
      * Initializes the configuration path.
@@ -108,7 +206,77 @@ public class App extends PApplet{
      */
     @Override
     public void settings() {
-        size(WIDTH, HEIGHT);
+        String requested = parseOption(args, "--renderer");
+        if (requested == null) {
+            requested = readConfiguredRenderer();
+        }
+        String renderer = resolveRenderer(requested);
+        if (renderer == null) {
+            System.err.println("Renderer " + requested + " is not available, using " + DEFAULT_RENDERER);
+            requested = DEFAULT_RENDERER;
+            renderer = JAVA2D;
+        }
+        rendererName = requested.toUpperCase();
+
+        String frames = parseOption(args, "--benchmark");
+        if (frames != null) {
+            benchmarkFrames = Integer.parseInt(frames);
+        }
+        size(WIDTH, HEIGHT, renderer);
+    }
+
+    /**
+     * Reads the renderer named by {@code "renderer"} in the config file.
+     * @return The configured renderer name, or {@link #DEFAULT_RENDERER} if the config does not name one
+     */
+    private String readConfiguredRenderer() {
+        try {
+            return ResourceLoader.loadJSON(configPath).getString("renderer", DEFAULT_RENDERER);
+        } catch (Exception e) {
+            return DEFAULT_RENDERER;
+        }
+    }
+
+    /**
+     * Turns a renderer name into the renderer to pass to {@code size()}, if it can run here.
+     * FX2D needs JavaFX and P2D needs JOGL on the classpath, neither of which ships with the JDK.
+     * @param name The renderer name, {@code JAVA2D}, {@code FX2D} or {@code P2D}, in any case
+     * @return The Processing renderer, or {@code null} if the name is unknown or its libraries are missing
+     */
+    static String resolveRenderer(String name) {
+        String renderer;
+        String requiredClass;
+        switch (name.toUpperCase()) {
+            case "JAVA2D":
+                return JAVA2D;
+            case "FX2D":
+                renderer = FX2D;
+                requiredClass = "javafx.application.Platform";
+                break;
+            case "P2D":
+                renderer = P2D;
+                requiredClass = "com.jogamp.opengl.GLProfile";
+                break;
+            default:
+                return null;
+        }
+        try {
+            Class.forName(requiredClass, false, App.class.getClassLoader());
+            return renderer;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a renderer keeps the previous frame on screen, which dirty rectangle rendering
+     * relies on to repaint only the parts that changed. P2D swaps its buffers every frame, so their
+     * contents are undefined at the start of the next one.
+     * @param name The renderer name, as stored in {@link #rendererName}
+     * @return {@code true} only for {@code JAVA2D}, which draws into an image that persists between frames
+     */
+    static boolean keepsPreviousFrame(String name) {
+        return DEFAULT_RENDERER.equalsIgnoreCase(name);
     }
 
     /**
@@ -117,13 +285,40 @@ public class App extends PApplet{
     @Override
     public void setup() {
         try {
-            frameRate(FPS);
-            tileBaseImage = loadImage("src/main/resources/inkball/tile.png");
-            loadImages();
+            if (!headless) {
+                startImageLoading();
+            }
+            buildTileTemplates();
 
-            config = loadJSONObject("config.json");
+            config = ResourceLoader.loadJSON(configPath);
 
             levels = config.getJSONArray("levels");
+            levelPack = null;
+            loadedLevel = null;
+            nextLevel = null;
+            if (config.hasKey("level_pack")) {
+                String packName = config.getString("level_pack");
+                try {
+                    levelPack = LevelPack.open(packName);
+                } catch (IOException e) {
+                    System.err.println("Could not open level pack " + packName + ", using the levels in the config: " + e.getMessage());
+                }
+            }
+            dirtyRectRendering = config.getBoolean("dirty_rect_rendering", false);
+            if (dirtyRectRendering && !keepsPreviousFrame(rendererName)) {
+                System.err.println("Dirty rectangle rendering needs the " + DEFAULT_RENDERER + " renderer, drawing whole frames with " + rendererName);
+                dirtyRectRendering = false;
+            }
+            if (benchmarkFrames > 0) {
+                // Draw frames as fast as the renderer allows so their cost can be measured
+                frameRate(1000);
+            } else if (!headless) {
+                // Frames are drawn independently of the simulation, which always steps at FPS
+                float renderFps = config.getFloat("render_fps", DEFAULT_RENDER_FPS);
+                frameRate(renderFps);
+                frameBudgetNanos = (long) (1_000_000_000L / renderFps);
+                maxFrameSkip = config.getInt("max_frame_skip", 0);
+            }
             playerLines = new ArrayList<>();
 
             scoreIncreaseMap = new HashMap<>();
@@ -159,50 +354,148 @@ public class App extends PApplet{
 
             // Load the first level
             loadLevel(currentLevelIndex);
+            resetClock();
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Loads an image from resources.
+     * Loads an image from resources, decoding it straight from the classpath so it also loads
+     * from inside the packaged jar.
      * @param filename The name of the image file without extension
      * @return The loaded PImage
-     * @throws UnsupportedEncodingException If there's an encoding error
+     * @throws IOException If the image cannot be found or decoded
+     */
+    PImage loadImageFromResources(String filename) throws IOException {
+        return ResourceLoader.loadImage(filename);
+    }
+
+    /**
+     * Loads the game's images. The sprite sheet holds most sprites, so it is decoded first, once,
+     * and the images with files of their own are then decoded on a small pool of background
+     * threads. Those are handed over as they are first used, so the first level does not wait for
+     * images it does not show. Each image is decoded once per process and shared through the
+     * {@link AssetCache}, so later games and restarts reuse the images decoded the first time.
+     */
+    private void startImageLoading() {
+        images.clear();
+        pendingImages.clear();
+
+        PImage sheet = loadAsset(SpriteAtlas.SHEET_NAME);
+        if (spriteAtlas == null || spriteAtlas.getSheet() != sheet) {
+            spriteAtlas = new SpriteAtlas(sheet);
+        }
+        for (String name : SpriteAtlas.spriteNames()) {
+            images.put(name, spriteAtlas.get(name));
+        }
+
+        ExecutorService loader = Executors.newFixedThreadPool(IMAGE_LOADER_THREADS, task -> {
+            Thread thread = new Thread(task, "inkball-image-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String name : IMAGE_NAMES) {
+            pendingImages.put(name, loader.submit(() -> loadAsset(name)));
+        }
+        // Let the queued images finish, then let the threads exit
+        loader.shutdown();
+
+        // Balls are created all through a level, so their sprites are needed from the start
+        for (int type = 0; type < ballImages.length; type++) {
+            ballImages[type] = image("ball" + type);
+        }
+    }
+
+    /**
+     * Gets a game sprite, waiting for its image if it is still being decoded.
+     * @param name The name of the sprite, such as {@code "wall2"}
+     * @return The sprite, or {@code null} if images are not loaded, as in a headless run
      */
-    PImage loadImageFromResources(String filename) throws UnsupportedEncodingException {
-        String imagePath = URLDecoder.decode(
-                this.getClass().getResource("/inkball/" + filename + ".png").getPath(),
-                StandardCharsets.UTF_8.name()
-        );
-        return loadImage(imagePath);
+    Sprite image(String name) {
+        Sprite sprite = images.get(name);
+        if (sprite == null) {
+            Future<PImage> pending = pendingImages.remove(name);
+            if (pending != null) {
+                sprite = new Sprite(awaitImage(name, pending));
+                images.put(name, sprite);
+            }
+        }
+        return sprite;
     }
 
     /**
-     * Loads all game images.
+     * Waits for an image being decoded in the background, showing how many images have finished
+     * in the window title while it waits.
+     * @param name The name of the image
+     * @param pending The image being decoded
+     * @return The decoded image
      */
-    private void loadImages() {
+    private PImage awaitImage(String name, Future<PImage> pending) {
         try {
-            wall0 = loadImageFromResources("wall0");
-            wall1 = loadImageFromResources("wall1");
-            wall2 = loadImageFromResources("wall2");
-            wall3 = loadImageFromResources("wall3");
-            wall4 = loadImageFromResources("wall4");
-            ball0 = loadImageFromResources("ball0");
-            ball1 = loadImageFromResources("ball1");
-            ball2 = loadImageFromResources("ball2");
-            ball3 = loadImageFromResources("ball3");
-            ball4 = loadImageFromResources("ball4");
-            speedTile1 = loadImageFromResources("speedTile1");
-            speedTile2 = loadImageFromResources("speedTile2");
-            speedTile3= loadImageFromResources("speedTile3");
-            speedTile4 = loadImageFromResources("speedTile4");
-            spawner = loadImage("src/main/resources/inkball/entrypoint.png");
-            hole = loadImage("src/main/resources/inkball/hole0.png");
-        } catch (Exception e) {
+            while (true) {
+                try {
+                    PImage image = pending.get(LOADING_PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (showingLoadingProgress && surface != null) {
+                        surface.setTitle(getClass().getSimpleName());
+                        showingLoadingProgress = false;
+                    }
+                    return image;
+                } catch (TimeoutException e) {
+                    showLoadingProgress();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading " + name);
+        } catch (ExecutionException e) {
             e.printStackTrace();
-            throw new RuntimeException("Error loading images: " + e.getMessage());
+            throw new RuntimeException("Error loading images: " + e.getCause());
+        }
+    }
+
+    /**
+     * Shows how many of the game images have been decoded in the window title.
+     */
+    private void showLoadingProgress() {
+        if (surface == null) {
+            return;
+        }
+        int loaded = IMAGE_NAMES.length;
+        for (Future<PImage> pending : pendingImages.values()) {
+            if (!pending.isDone()) {
+                loaded--;
+            }
         }
+        surface.setTitle("Inkball - loading " + loaded + "/" + IMAGE_NAMES.length);
+        showingLoadingProgress = true;
+    }
+
+    /**
+     * Builds the tile templates shared by every board cell. The images do not change while the
+     * game runs, so this is done once, when the game is set up.
+     */
+    private void buildTileTemplates() {
+        Sprite tileBaseImage = image("tile");
+        tileTemplates[TileTemplate.FLOOR] = new TileTemplate("floor", tileBaseImage, true);
+        tileTemplates[TileTemplate.COVERED] = new TileTemplate("covered", tileBaseImage, false);
+        tileTemplates[TileTemplate.OCCUPIED] = new TileTemplate("occupied", tileBaseImage, false);
+        tileTemplates[TileTemplate.WIN_WALL] = new TileTemplate("win wall", image("wall4"), true);
+    }
+
+    /**
+     * Gets an image from the {@link AssetCache}, decoding it on a miss.
+     * @param name The name of the image file without extension, such as the sprite sheet's
+     * @return The decoded image
+     */
+    private PImage loadAsset(String name) {
+        return AssetCache.getImage(name, key -> {
+            try {
+                return loadImageFromResources(key);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     /**
@@ -210,21 +503,21 @@ public class App extends PApplet{
      * @param levelIndex The index of the level to load
      */
     public void loadLevel(int levelIndex) {
-        if (levelIndex >= levels.size()) {
+        if (levelIndex >= levelCount()) {
+            // The message is drawn by drawUI, so a headless run never draws it
             gameOver = true;
-            displayMessage("=== ENDED ===");
             return;
         }
 
-        JSONObject levelData = levels.getJSONObject(levelIndex);
-        currentLevel = new Level(levelData);
+        PreparedLevel prepared = takePreparedLevel(levelIndex);
+        currentLevel = prepared.level;
 
         // Reset level state
         levelTimer = currentLevel.time * FPS; // Convert seconds to frames
         spawnTimer = currentLevel.spawnInterval * FPS; // Convert seconds to frames
 
         // Load level layout
-        loadLevelLayout(currentLevel.layout);
+        loadLevelLayout(prepared.layout);
 
         // Initialize ungenerated ball queue
         ballQueue = new ArrayList<>(currentLevel.balls);
@@ -236,83 +529,224 @@ public class App extends PApplet{
         levelWon = false;
 
         spawnNextBall();
+
+        loadedLevel = prepared;
+        prefetchLevel(levelIndex + 1);
     }
 
     /**
-     * Loads the level layout from a file.
-     * @param fileName The name of the layout file
+     * Gets a level ready to be put on the board, using the level already on the board or the one
+     * prepared in the background when they match, and reading it now otherwise.
+     * @param levelIndex The index of the level
+     * @return The level's settings and layout
      */
-    public void loadLevelLayout(String fileName) {
-        String[] rows = loadStrings(fileName);
-        grid = new Tile[BOARD_WIDTH][BOARD_HEIGHT];
-        drawables = new ArrayList<>();
-
-        for (int y = 0; y < rows.length; y++) {
-            String row = rows[y];
-            for (int x = 0; x < row.length(); x++) {
-                char tileType = row.charAt(x);
-                if ((tileType == 'H' || tileType == 'B') && x + 1 < row.length()) {
-                    char typeNumber = row.charAt(x + 1);
-                    if (Character.isDigit(typeNumber)) {
-                        String compositeType = "" + tileType + typeNumber;
-                        PImage overlayImg = getTileOverlayImage(compositeType);
-
-                        Drawable drawable;
-                        if (tileType == 'H') {
-                            drawable = new Hole(x, y, overlayImg, typeNumber - '0');
-
-                            grid[x][y] = new Tile(x, y, drawable, tileBaseImage, overlayImg);
-                            grid[x + 1][y] = new Tile(x + 1, y, null, tileBaseImage, null);
-                            grid[x][y + 1] = new Tile(x, y + 1, null, tileBaseImage, null);
-                            grid[x + 1][y + 1] = new Tile(x + 1, y + 1, null, tileBaseImage, null);
-                            grid[x + 1][y].setCovered(true);
-                            grid[x][y + 1].setCovered(true);
-                            grid[x + 1][y + 1].setCovered(true);
-                        } else {
-                            drawable = new Ball(x, y, overlayImg, typeNumber - '0');
-                            grid[x + 1][y] = new Tile(x + 1, y, null, tileBaseImage, null);
-                            grid[x][y] = new Tile(x, y, null, tileBaseImage, null);
-                        }
-                        drawables.add(drawable);
-                        x += 1;
-                        continue;
-                    }
+    private PreparedLevel takePreparedLevel(int levelIndex) {
+        if (loadedLevel != null && loadedLevel.index == levelIndex) {
+            return loadedLevel;
+        }
+        if (nextLevel != null && nextLevelIndex == levelIndex) {
+            Future<PreparedLevel> pending = nextLevel;
+            nextLevel = null;
+            try {
+                return pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Read it again below, so the failure is reported on this thread
+                e.getCause().printStackTrace();
+            }
+        }
+        return prepareLevel(levelIndex);
+    }
+
+    /**
+     * Starts preparing a level on the prefetch thread, unless it does not exist or is already being prepared.
+     * @param levelIndex The index of the level
+     */
+    private void prefetchLevel(int levelIndex) {
+        if (levelIndex >= levelCount() || (nextLevel != null && nextLevelIndex == levelIndex)) {
+            return;
+        }
+        if (levelPrefetcher == null) {
+            levelPrefetcher = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "inkball-level-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        nextLevelIndex = levelIndex;
+        nextLevel = levelPrefetcher.submit(() -> prepareLevel(levelIndex));
+    }
+
+    /**
+     * Reads a level's settings and layout, and makes sure the images its layout uses are decoded.
+     * Only reads shared state, so it can run on the prefetch thread while the game plays.
+     * @param levelIndex The index of the level
+     * @return The prepared level
+     */
+    private PreparedLevel prepareLevel(int levelIndex) {
+        Level level;
+        LevelLayout layout;
+        if (levelPack != null) {
+            level = levelPack.getLevel(levelIndex);
+            layout = levelPack.getLayout(levelIndex);
+        } else {
+            level = new Level(levels.getJSONObject(levelIndex));
+            layout = LevelLayout.parse(readLayout(level.layout));
+        }
+
+        if (!headless) {
+            for (int i = 0; i < layout.getEntityCount(); i++) {
+                String name = layout.getImageName(i);
+                if (name != null && !SpriteAtlas.hasSprite(name)) {
+                    loadAsset(name);
                 }
+            }
+        }
+        return new PreparedLevel(levelIndex, level, layout);
+    }
 
-                PImage overlayImg = getTileOverlayImage(Character.toString(tileType));
-                if (tileType == '1' || tileType == '2' || tileType == '3' || tileType == '4') {
-                    Drawable drawable = getDrawableForTileType(Character.toString(tileType), x, y, overlayImg, tileType);
-                    grid[x][y] = new Tile(x, y, drawable, tileBaseImage, overlayImg);
-                    if (drawable != null) {
-                        drawables.add(drawable);
-                    }
-                } else if (tileType == 'S') {
-                    Spawner spawner = new Spawner(x, y, overlayImg);
-                    grid[x][y] = new Tile(x, y, spawner, tileBaseImage, overlayImg);
+    /**
+     * Waits for the level being prepared in the background, if it is the given one.
+     * @param levelIndex The index of the level
+     * @return The prepared level's settings, or {@code null} if that level is not being prepared
+     * @throws Exception If preparing the level failed
+     */
+    Level prefetchedLevel(int levelIndex) throws Exception {
+        return nextLevel != null && nextLevelIndex == levelIndex ? nextLevel.get().level : null;
+    }
+
+    /**
+     * Gets the settings of the level on the board.
+     * @return The current level
+     */
+    Level getCurrentLevel() {
+        return currentLevel;
+    }
 
-                    drawables.add(spawner);
-                    spawners.add(spawner);
+    /**
+     * Gets the number of levels in the game.
+     * @return The number of levels in the level pack if one is used, or in the config otherwise
+     */
+    int levelCount() {
+        return levelPack != null ? levelPack.size() : levels.size();
+    }
 
-                } else if (tileType == '^' || tileType == 'v' || tileType == '<' || tileType == '>') {
-                    SpeedTile speedTile = new SpeedTile(x, y, overlayImg, tileType);
-                    grid[x][y] = new Tile(x, y, speedTile, tileBaseImage, overlayImg);
+    /**
+     * Reads the rows of a layout file.
+     * @param fileName The name of the layout file
+     * @return The rows of the layout
+     */
+    private static String[] readLayout(String fileName) {
+        try {
+            return ResourceLoader.loadLines(fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read level layout " + fileName, e);
+        }
+    }
 
-                    drawables.add(speedTile);
+    /**
+     * Loads the level layout from a file.
+     * @param fileName The name of the layout file
+     */
+    public void loadLevelLayout(String fileName) {
+        loadLevelLayout(readLayout(fileName));
+    }
+
+    /**
+     * Builds the board from the rows of a level layout.
+     * @param rows The rows of the layout, one character per cell
+     */
+    public void loadLevelLayout(String[] rows) {
+        loadLevelLayout(LevelLayout.parse(rows));
+    }
+
+    /**
+     * Builds the board from a resolved level layout, copying its cell codes and creating one
+     * entity per row of its entity table.
+     * @param layout The resolved layout
+     */
+    public void loadLevelLayout(LevelLayout layout) {
+        tileCodes = layout.copyCodes();
+        boardLayerDirty = true;
+        wallGrid = new Wall[BOARD_WIDTH][BOARD_HEIGHT];
+        speedTileGrid = new SpeedTile[BOARD_WIDTH][BOARD_HEIGHT];
+        balls.clear();
+        walls.clear();
+        holes.clear();
+        spawners.clear();
+        speedTiles.clear();
+
+        for (int i = 0; i < layout.getEntityCount(); i++) {
+            int x = layout.getX(i);
+            int y = layout.getY(i);
+            int type = layout.getType(i);
+            String imageName = layout.getImageName(i);
+            Sprite overlayImg = imageName == null ? null : image(imageName);
+
+            switch (layout.getKind(i)) {
+                case LevelLayout.WALL:
+                    Wall wall = new Wall(x, y, overlayImg, type);
+                    walls.add(wall);
+                    wallGrid[x][y] = wall;
+                    break;
+                case LevelLayout.HOLE:
+                    holes.add(new Hole(x, y, overlayImg, type));
+                    break;
+                case LevelLayout.BALL:
+                    balls.add(new Ball(x, y, getBallImageByType(type), type));
+                    break;
+                case LevelLayout.SPAWNER:
+                    spawners.add(new Spawner(x, y, overlayImg));
+                    break;
+                case LevelLayout.SPEED_TILE:
+                    SpeedTile speedTile = new SpeedTile(x, y, overlayImg, (char) type);
                     speedTiles.add(speedTile);
+                    speedTileGrid[x][y] = speedTile;
+                    break;
+                default:
+                    break;
+            }
+        }
 
-                } else {
-                    Drawable drawable = getDrawableForTileType(Character.toString(tileType), x, y, overlayImg, '0');
-                    grid[x][y] = new Tile(x, y, drawable, tileBaseImage, overlayImg);
-                    if (drawable != null) {
-                        drawables.add(drawable);
+        buildHoleInfluence();
+    }
+
+    /**
+     * Builds the per-cell lists of holes whose attraction radius reaches each cell,
+     * so each ball only has to check the holes that can affect it.
+     */
+    private void buildHoleInfluence() {
+        holeInfluence = new Hole[BOARD_WIDTH][BOARD_HEIGHT][];
+        List<Hole> nearby = new ArrayList<>();
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                nearby.clear();
+                for (Hole hole : holes) {
+                    if (hole.attractsCell(x, y)) {
+                        nearby.add(hole);
                     }
                 }
-
-
+                holeInfluence[x][y] = nearby.isEmpty() ? NO_HOLES : nearby.toArray(new Hole[0]);
             }
         }
     }
 
+    /**
+     * Gets the holes that can attract a ball at the given board position.
+     * @param x The x-coordinate on the board
+     * @param y The y-coordinate on the board
+     * @return The holes whose attraction radius reaches the cell containing the position
+     */
+    Hole[] getHolesNear(float x, float y) {
+        int cellX = (int) Math.floor(x / CELLSIZE);
+        int cellY = (int) Math.floor(y / CELLSIZE);
+        if (holeInfluence == null || cellX < 0 || cellX >= BOARD_WIDTH || cellY < 0 || cellY >= BOARD_HEIGHT) {
+            return NO_HOLES;
+        }
+        return holeInfluence[cellX][cellY];
+    }
+
     /**
      * Handles key press events.
      * @param event The KeyEvent object
@@ -322,11 +756,8 @@ public class App extends PApplet{
         if (key == ' ' && !levelEnded) {
             paused = !paused;
             if (!paused) {
-                for (Drawable drawable : drawables) {
-                    if (drawable instanceof Ball) {
-                        Ball ball = (Ball) drawable;
-                        ball.restoreVelocity();
-                    }
+                for (int i = 0; i < balls.size(); i++) {
+                    balls.get(i).restoreVelocity();
                 }
             }
         } else if ((key == 'r' || key == 'R') && (!paused || levelEnded)) {
@@ -342,6 +773,7 @@ public class App extends PApplet{
             }
             playingWinAnimation = false;
             playerLines.clear();
+            lineIndex.clear();
             currentLine = null;
         }
 
@@ -365,6 +797,7 @@ public class App extends PApplet{
             } else {
                 currentLine = new PlayerLine();
                 currentLine.addPoint(e.getX(), e.getY() - TOP_MARGIN);
+                lineIndex.update(currentLine);
             }
         } else if (e.getButton() == RIGHT) {
             removeLine(e.getX(), e.getY() - TOP_MARGIN);
@@ -381,6 +814,7 @@ public class App extends PApplet{
         if (e.getButton() == LEFT) {
             if (currentLine != null) {
                 currentLine.addPoint(e.getX(), e.getY() - TOP_MARGIN);
+                lineIndex.update(currentLine);
             }
         } else if (e.getButton() == RIGHT || (e.getButton() == LEFT && e.isControlDown())) {
             removeLine(e.getX(), e.getY() - TOP_MARGIN);
@@ -406,13 +840,26 @@ public class App extends PApplet{
      * @param y The y-coordinate
      */
     void removeLine(float x, float y) {
-        Iterator<PlayerLine> iterator = playerLines.iterator();
-        while (iterator.hasNext()) {
-            PlayerLine line = iterator.next();
-            if (line.containsPoint(x, y)) {
-                iterator.remove();
+        updateLineIndex();
+        PlayerLine line = lineIndex.findLineAt(x, y, currentLine);
+        while (line != null) {
+            lineIndex.remove(line);
+            if (playerLines.remove(line)) {
                 break;
             }
+            // The line was no longer on the board, so look for another one under the click
+            line = lineIndex.findLineAt(x, y, currentLine);
+        }
+    }
+
+    /**
+     * Indexes any points of the finished player lines that are not in the line index yet.
+     * Lines drawn with the mouse are indexed as they are drawn, so this only does work
+     * for lines added to {@code playerLines} directly.
+     */
+    void updateLineIndex() {
+        for (int i = 0; i < playerLines.size(); i++) {
+            lineIndex.update(playerLines.get(i));
         }
     }
 
@@ -420,13 +867,8 @@ public class App extends PApplet{
      * Draws the user interface elements.
      */
     private void drawUI() {
-        textAlign(LEFT, TOP);
-        textSize(24);
-        fill(0);
-
-        text("Score: " + score, 438, 5);
-
-        text("Time: " +  (int)Math.floor(levelTimer / (double)FPS), 445, 35);
+        scoreLabel.draw(this, score, 438, 5);
+        timeLabel.draw(this, (int) Math.floor(levelTimer / (double) FPS), 445, 35);
 
         if (gameOver) {
             displayMessage("=== ENDED ===");
@@ -436,15 +878,28 @@ public class App extends PApplet{
         }
     }
 
+    /**
+     * Advances the slide animation of the ball queue by one simulation step.
+     */
+    private void updateBallQueueSlide() {
+        if (isSliding) {
+            if (slideProgress < QUEUE_BALL_SIZE + QUEUE_BALL_SPACING) {
+                slideProgress += 2; // Adjust sliding speed
+            } else {
+                slideProgress = QUEUE_BALL_SIZE + QUEUE_BALL_SPACING;
+                isSliding = false;
+                slidingBallColor = null;
+            }
+        }
+    }
+
     /**
      * Draws the ball queue in the UI.
      */
     private void drawBallQueue() {
-        // Draw black background rectangle
-        int ballSize = 24;
-        int ballSpacing = 10;
+        int ballSize = QUEUE_BALL_SIZE;
+        int ballSpacing = QUEUE_BALL_SPACING;
 
-        int ballsToDisplay = 5;
         int rectWidth = 180;
         int rectHeight = 44;
         int rectX = 10;
@@ -455,168 +910,223 @@ public class App extends PApplet{
         noStroke();
         rect(rectX, rectY, rectWidth, rectHeight);
 
-        // Save current drawing state
-        pushStyle();
-        pushMatrix();
+        // The strip holds the sliding ball followed by the queue, so sliding only moves the strip
+        if (queueStrip == null) {
+            queueStrip = createGraphics(ballSpacing + (QUEUE_BALLS_SHOWN + 1) * (ballSize + ballSpacing), rectHeight);
+            queueStripKey = -1;
+        }
+        int key = queueStripKey();
+        if (key != queueStripKey) {
+            renderQueueStrip();
+            queueStripKey = key;
+        }
 
-        // Set clipping area
         clip(rectX, rectY, rectWidth, rectHeight);
+        image(queueStrip, rectX - (isSliding ? slideProgress : 0), rectY);
+        noClip();
 
-        // Move coordinate system to top-left corner of background frame
-        translate(rectX, rectY);
-
-        // Update sliding progress
-        if (isSliding) {
-            if (slideProgress < ballSize + ballSpacing) {
-                slideProgress += 2; // Adjust sliding speed
-            } else {
-                slideProgress = ballSize + ballSpacing;
-                isSliding = false;
-                slidingBallColor = null;
-            }
+        if (!ballQueue.isEmpty()) {
+            float textX = rectX + rectWidth + 10; // Place text 10 pixels to the right of the rectangle
+            float textY = rectY + rectHeight / 2; // Vertically center-align the text
+            spawnLabel.draw(this, Math.round(spawnTimer / FPS * 10), textX, textY);
         }
+    }
 
-        // Draw sliding ball
+    /**
+     * Draws the sliding ball and the first balls of the queue into the queue strip.
+     */
+    private void renderQueueStrip() {
+        int slot = 0;
+        int step = QUEUE_BALL_SIZE + QUEUE_BALL_SPACING;
+        queueStrip.beginDraw();
+        queueStrip.clear();
         if (slidingBallColor != null) {
-            PImage ballImage = getBallImageByColor(slidingBallColor);
-            float xPosition = ballSpacing - slideProgress;
-            float yPosition = ballSpacing;
-            image(ballImage, xPosition, yPosition, ballSize, ballSize);
+            getBallImageByColor(slidingBallColor).draw(queueStrip, QUEUE_BALL_SPACING, QUEUE_BALL_SPACING,
+                    QUEUE_BALL_SIZE, QUEUE_BALL_SIZE);
         }
-
-        // Draw remaining balls
-        List<String> ballsToDraw = ballQueue;
-        int maxDisplay = Math.min(ballsToDisplay, ballsToDraw.size());
         if (isSliding) {
-            for (int i = 0; i < maxDisplay; i++) {
-                String ballColor = ballsToDraw.get(i);
-                PImage ballImage = getBallImageByColor(ballColor);
-                float xPosition = ballSpacing + (i + 1) * (ballSize + ballSpacing) - slideProgress;
-                float yPosition = ballSpacing;
-                image(ballImage, xPosition, yPosition, ballSize, ballSize);
-            }
-        } else {
-            for (int i = 0; i < maxDisplay; i++) {
-                String ballColor = ballsToDraw.get(i);
-                PImage ballImage = getBallImageByColor(ballColor);
-                float xPosition = ballSpacing + i * (ballSize + ballSpacing);
-                float yPosition = ballSpacing;
-                image(ballImage, xPosition, yPosition, ballSize, ballSize);
-            }
+            slot = 1;
         }
+        int shown = Math.min(QUEUE_BALLS_SHOWN, ballQueue.size());
+        for (int i = 0; i < shown; i++) {
+            float xPosition = QUEUE_BALL_SPACING + (slot + i) * step;
+            getBallImageByColor(ballQueue.get(i)).draw(queueStrip, xPosition, QUEUE_BALL_SPACING,
+                    QUEUE_BALL_SIZE, QUEUE_BALL_SIZE);
+        }
+        queueStrip.endDraw();
+    }
 
-        // Restore drawing state
-        popMatrix();
-        popStyle();
-        noClip();
-
-        if (!ballQueue.isEmpty()) {
-            fill(0); // Use black text, as it's now outside the black area
-            textSize(24);
-            textAlign(LEFT, CENTER);
-            float textX = rectX + rectWidth + 10; // Place text 10 pixels to the right of the rectangle
-            float textY = rectY + rectHeight / 2; // Vertically center-align the text
-            text(String.format("%.1f", spawnTimer / FPS), textX, textY);
+    /**
+     * Encodes what the queue strip shows, so the strip is only drawn again when it changes.
+     * @return A value that is different for every combination of sliding ball and shown queue balls
+     */
+    private int queueStripKey() {
+        int key = slidingBallColor == null ? 0 : getTypeByColor(slidingBallColor) + 1;
+        int shown = Math.min(QUEUE_BALLS_SHOWN, ballQueue.size());
+        for (int i = 0; i < QUEUE_BALLS_SHOWN; i++) {
+            key = key * 6 + (i < shown ? getTypeByColor(ballQueue.get(i)) + 1 : 0);
         }
+        return key * 2 + (isSliding ? 1 : 0);
     }
 
+    /**
+     * Formats a number of tenths with one decimal place, such as 25 as {@code "2.5"},
+     * without going through {@code String.format}.
+     * @param tenths The number of tenths
+     * @return The formatted number
+     */
+    static String formatTenths(int tenths) {
+        int magnitude = Math.abs(tenths);
+        return (tenths < 0 ? "-" : "") + magnitude / 10 + "." + magnitude % 10;
+    }
 
     /**
-     * Main draw method, called every frame.
+     * Main draw method, called every frame. Runs as many fixed simulation steps as the
+     * time since the last frame covers, then renders the current state once, so game
+     * speed does not depend on how fast frames are drawn. A frame that arrives late skips
+     * rendering, up to {@link #maxFrameSkip} frames in a row, so an overloaded machine keeps
+     * the game responsive rather than falling further behind.
      */
     @Override
     public void draw() {
-        background(200);
-        drawUI();
-        drawBallQueue();
-
-        pushMatrix();
-        translate(0, TOP_MARGIN);
-        drawGrid();
-
-
-        List<Ball> balls = new ArrayList<>();
-        List<Collidable> collidables = new ArrayList<>();
-        List<Drawable> nonBallDrawables = new ArrayList<>();
-        List<Ball> ballsToRemove = new ArrayList<>();
-
-        // Separate balls, collidables, and other drawables
-        for (Drawable drawable : drawables) {
-            if (drawable instanceof Ball) {
-                Ball ball = (Ball) drawable;
-                ball.update();
-                balls.add(ball);
-            } else {
-                nonBallDrawables.add(drawable);
-                if (drawable instanceof Collidable) {
-                    collidables.add((Collidable) drawable);
-                }
-            }
+        long now = System.nanoTime();
+        if (benchmarkFrames > 0) {
+            timeBenchmarkFrame(now);
+        }
+        long elapsed = now - lastFrameNanos;
+        accumulatedNanos += elapsed;
+        lastFrameNanos = now;
+
+        int steps = 0;
+        while (accumulatedNanos >= STEP_NANOS && steps < MAX_STEPS_PER_FRAME) {
+            step();
+            accumulatedNanos -= STEP_NANOS;
+            steps++;
+        }
+        if (steps == MAX_STEPS_PER_FRAME) {
+            // Too far behind to catch up, so let game time slip instead of stalling the frame
+            accumulatedNanos %= STEP_NANOS;
         }
 
-        // Add player lines to collidables
-        collidables.addAll(playerLines);
+        // Input has already been handled and the simulation advanced, so an overrun frame can
+        // drop its rendering to catch up, but never more than maxFrameSkip frames in a row
+        if (isOverrun(elapsed) && consecutiveSkips < maxFrameSkip) {
+            consecutiveSkips++;
+            skippedFrames++;
+            return;
+        }
+        consecutiveSkips = 0;
 
-        // Check collisions and speed boost
-        for (Ball ball : balls) {
-            for (Collidable collidable : collidables) {
-                if (collidable.checkCollision(ball)) {
-                    break; // Ball has collided, move to next ball
-                }
-            }
-            for (SpeedTile speedTile : speedTiles) {
-                //System.out.println("ball:" + ball.getX() + ", " + ball.getY());
-                //System.out.println("speedtile" + (speedTile.getX() * App.CELLSIZE + App.CELLSIZE / 2) + ", " + (speedTile.getY() * App.CELLSIZE + App.CELLSIZE / 2));
-                float distanceX = Math.abs(ball.getX() - (speedTile.getX() * App.CELLSIZE + App.CELLSIZE / 2));
-                float distanceY = Math.abs(ball.getY() - (speedTile.getY() * App.CELLSIZE + App.CELLSIZE / 2));
-                float dist = PApplet.sqrt(distanceX * distanceX + distanceY * distanceY);
-
-                if (dist <= 25) {
-                    speedTile.applySpeedBoost(ball);
+        // Draw balls the leftover fraction of a step past their previous position
+        renderAlpha = (float) accumulatedNanos / STEP_NANOS;
+        renderSink.frame(this);
+    }
 
-                }
-            }
+    /**
+     * Checks whether a frame arrived too late to keep up with the frame rate. Frames are allowed
+     * half a frame of slack, since the sketch's frame pacing is never exact.
+     * @param elapsed The time since the previous frame in nanoseconds
+     * @return {@code true} if the frame is more than half a frame behind, {@code false} otherwise
+     */
+    boolean isOverrun(long elapsed) {
+        return elapsed > frameBudgetNanos + frameBudgetNanos / 2;
+    }
 
+    /**
+     * Times a frame of a {@code --benchmark} run, from the start of the previous frame to the
+     * start of this one, so the renderer's presentation of the previous frame is included.
+     * Once enough frames of a level have been timed, their mean and 99th percentile are printed
+     * and the next level is loaded. After the last level the totals are printed and the sketch exits.
+     * @param now The time this frame started, from {@link System#nanoTime()}
+     */
+    private void timeBenchmarkFrame(long now) {
+        if (lastBenchmarkNanos != 0) {
+            levelFrameTimes.record(now - lastBenchmarkNanos);
+            benchmarkFrameTimes.record(now - lastBenchmarkNanos);
         }
-
-        // Apply hole attraction
-        for (Drawable drawable : nonBallDrawables) {
-            if (drawable instanceof Hole) {
-                Hole hole = (Hole) drawable;
-                for (Ball ball : balls) {
-                    hole.attractBall(ball, this);
-                    if (ball.isCaptured()) {
-                        ballsToRemove.add(ball);
-                    }
-                }
-            }
+        lastBenchmarkNanos = now;
+        if (levelFrameTimes.count() < benchmarkFrames) {
+            return;
         }
 
-        // Remove captured balls
-        for (Ball ball : ballsToRemove) {
-            drawables.remove(ball);
-            balls.remove(ball);
+        System.out.println(rendererName + " level " + (currentLevelIndex + 1) + ": " + levelFrameTimes);
+        levelFrameTimes.reset();
+        currentLevelIndex++;
+        if (currentLevelIndex >= levelCount()) {
+            System.out.println(rendererName + " all levels: " + benchmarkFrameTimes);
+            exit();
+            return;
         }
+        loadLevel(currentLevelIndex);
+        playerLines.clear();
+        lineIndex.clear();
+        currentLine = null;
+        // Loading the level is not part of the next frame's cost
+        lastBenchmarkNanos = 0;
+        resetClock();
+    }
 
-        // Drawing phase
-        // 1. Draw non-ball drawables (including spawners)
-        for (Drawable drawable : nonBallDrawables) {
-            drawable.draw(this);
+    /**
+     * Runs the game without a window, as fast as possible. The game is set up without loading any
+     * images, and then advanced one simulation step per frame with nothing rendered, until the
+     * game is over, the level runs out of time or the step limit is reached.
+     * @param maxSteps The largest number of simulation steps to run
+     * @return The number of simulation steps that were run
+     */
+    public int runHeadless(int maxSteps) {
+        headless = true;
+        renderSink = RenderSink.NONE;
+        setup();
+
+        int steps = 0;
+        while (steps < maxSteps && !gameOver && !(levelEnded && !levelWon)) {
+            step();
+            renderSink.frame(this);
+            steps++;
         }
+        return steps;
+    }
 
-        // 2. Draw balls on top
-        for (Ball ball : balls) {
-            ball.draw(this);
-        }
+    /**
+     * Restarts the simulation clock so that time spent before now is not simulated.
+     */
+    void resetClock() {
+        lastFrameNanos = System.nanoTime();
+        accumulatedNanos = 0;
+    }
 
-        // 3. Draw player lines
-        for (PlayerLine line : playerLines) {
-            line.draw(this);
+    /**
+     * Advances the game by one fixed simulation step of {@code 1 / FPS} seconds.
+     * Moves and collides balls, applies speed tiles and holes, and advances the level,
+     * spawn and animation timers.
+     */
+    void step() {
+        for (int i = 0; i < balls.size(); i++) {
+            balls.get(i).storePreviousPosition();
         }
-        if (currentLine != null) {
-            currentLine.draw(this);
+
+        // Check collisions and speed boost
+        updateLineIndex();
+        int chunks = (balls.size() + PHYSICS_CHUNK_SIZE - 1) / PHYSICS_CHUNK_SIZE;
+        if (parallelPhysics && chunks > 1) {
+            parallelPhysicsStep(chunks);
+        } else {
+            for (int i = 0; i < balls.size(); i++) {
+                Ball ball = balls.get(i);
+                if (!moveBall(ball) && !checkWallCollisions(ball)) {
+                    lineIndex.checkCollision(ball, currentLine);
+                }
+                applySpeedBoosts(ball);
+            }
+
+            // Apply hole attraction. Captured balls are swapped out of the list by removeBall,
+            // so walk it backwards to visit every remaining ball exactly once.
+            for (int i = balls.size() - 1; i >= 0; i--) {
+                attractBall(balls.get(i), this);
+            }
         }
 
+        updateBallQueueSlide();
 
         if (!levelEnded && !paused && !gameOver) {
             levelTimer--;
@@ -645,39 +1155,21 @@ public class App extends PApplet{
                     initializeWinAnimation();
                 }
             } else if (levelEnded) {
-                for (Drawable drawable : drawables) {
-                    if (drawable instanceof Ball) {
-                        Ball ball = (Ball) drawable;
-                        ball.setVx(0);
-                        ball.setVy(0);
-                    }
-                }
+                stopBalls();
                 playerLines.clear();
+                lineIndex.clear();
                 currentLine = null;
-                textAlign(RIGHT, TOP);
-                fill(0);
-                textSize(20);
-
-                text("=== TIME'S UP ===", 430, -50);
-
             } else if (gameOver) {
-                for (Drawable drawable : drawables) {
-                    if (drawable instanceof Ball) {
-                        Ball ball = (Ball) drawable;
-                        ball.setVx(0);
-                        ball.setVy(0);
-                    }
-                }
+                stopBalls();
                 playerLines.clear();
+                lineIndex.clear();
                 currentLine = null;
             } else if (paused) {
-                for (Drawable drawable : drawables) {
-                    if (drawable instanceof Ball) {
-                        Ball ball = (Ball) drawable;
-                        ball.saveVelocity();
-                        ball.setVx(0);
-                        ball.setVy(0);
-                    }
+                for (int i = 0; i < balls.size(); i++) {
+                    Ball ball = balls.get(i);
+                    ball.saveVelocity();
+                    ball.setVx(0);
+                    ball.setVy(0);
                 }
             }
         }
@@ -704,9 +1196,403 @@ public class App extends PApplet{
                 loadLevel(currentLevelIndex);
             }
         }
+    }
+
+    /**
+     * Runs the ball physics of one step across the physics pool, one task per chunk of balls.
+     * Balls do not interact with each other, so moving, bouncing, boosting and attraction run in
+     * parallel. Ink lines are used up by the first ball that hits them, so line collisions are
+     * resolved in ball order on this thread. Captures are recorded into one command buffer per
+     * chunk and replayed from the last ball to the first, which is the order the single-threaded
+     * step applies them in, so both paths produce the same board, score and ball queue.
+     * @param chunks The number of chunks of {@link #PHYSICS_CHUNK_SIZE} balls
+     */
+    private void parallelPhysicsStep(int chunks) {
+        int count = balls.size();
+        if (hitWall.length < count) {
+            hitWall = new boolean[count];
+        }
+        while (chunkBuffers.size() < chunks) {
+            chunkBuffers.add(new CommandBuffer());
+        }
+
+        runChunks(chunks, chunk -> {
+            int start = chunk * PHYSICS_CHUNK_SIZE;
+            int end = Math.min(count, start + PHYSICS_CHUNK_SIZE);
+            for (int i = start; i < end; i++) {
+                Ball ball = balls.get(i);
+                hitWall[i] = moveBall(ball) || checkWallCollisions(ball);
+            }
+        });
+
+        for (int i = 0; i < count; i++) {
+            if (!hitWall[i]) {
+                lineIndex.checkCollision(balls.get(i), currentLine);
+            }
+        }
+
+        runChunks(chunks, chunk -> {
+            int start = chunk * PHYSICS_CHUNK_SIZE;
+            int end = Math.min(count, start + PHYSICS_CHUNK_SIZE);
+            CommandBuffer buffer = chunkBuffers.get(chunk);
+            buffer.clear();
+            for (int i = start; i < end; i++) {
+                applySpeedBoosts(balls.get(i));
+            }
+            for (int i = end - 1; i >= start; i--) {
+                attractBall(balls.get(i), buffer);
+            }
+        });
+
+        for (int chunk = chunks - 1; chunk >= 0; chunk--) {
+            chunkBuffers.get(chunk).replay(this);
+        }
+    }
+
+    /**
+     * Runs the work for every chunk on the physics pool and waits for all of it to finish.
+     * @param chunks The number of chunks
+     * @param work The work to run, given the index of its chunk
+     */
+    private void runChunks(int chunks, IntConsumer work) {
+        physicsPool.invoke(new ChunkTask(0, chunks, work));
+    }
+
+    /**
+     * A level read and ready to be put on the board.
+     */
+    private static final class PreparedLevel {
+        final int index;
+        final Level level;
+        final LevelLayout layout;
+
+        /**
+         * Creates a prepared level.
+         * @param index The index of the level
+         * @param level The level's settings
+         * @param layout The level's resolved layout
+         */
+        PreparedLevel(int index, Level level, LevelLayout layout) {
+            this.index = index;
+            this.level = level;
+            this.layout = layout;
+        }
+    }
+
+    /**
+     * A task that runs the physics work for a range of chunks, splitting the range in half
+     * until each task has a single chunk.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer work;
+
+        /**
+         * Creates a task for the chunks from {@code from} (inclusive) to {@code to} (exclusive).
+         * @param from The first chunk
+         * @param to The chunk after the last one
+         * @param work The work to run for each chunk
+         */
+        ChunkTask(int from, int to, IntConsumer work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        /**
+         * Runs the single chunk, or splits the range and runs both halves in parallel.
+         */
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, middle, work), new ChunkTask(middle, to, work));
+        }
+    }
+
+    /**
+     * Applies the boost of every speed tile whose centre is within the boost radius of the ball.
+     * Only the cells that can hold such a centre are looked up, in the same row-major order the
+     * tiles were loaded in.
+     * @param ball The ball to boost
+     */
+    private void applySpeedBoosts(Ball ball) {
+        if (speedTileGrid == null) {
+            return;
+        }
+        int minX = Math.max(0, (int) Math.floor((ball.getX() - SPEED_BOOST_RADIUS) / CELLSIZE));
+        int maxX = Math.min(BOARD_WIDTH - 1, (int) Math.floor((ball.getX() + SPEED_BOOST_RADIUS) / CELLSIZE));
+        int minY = Math.max(0, (int) Math.floor((ball.getY() - SPEED_BOOST_RADIUS) / CELLSIZE));
+        int maxY = Math.min(BOARD_HEIGHT - 1, (int) Math.floor((ball.getY() + SPEED_BOOST_RADIUS) / CELLSIZE));
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                SpeedTile speedTile = speedTileGrid[x][y];
+                if (speedTile == null) {
+                    continue;
+                }
+                float distanceX = ball.getX() - (x * CELLSIZE + CELLSIZE / 2);
+                float distanceY = ball.getY() - (y * CELLSIZE + CELLSIZE / 2);
+                if (distanceX * distanceX + distanceY * distanceY <= SPEED_BOOST_RADIUS * SPEED_BOOST_RADIUS) {
+                    speedTile.applySpeedBoost(ball);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the attraction of the holes near a ball. If the ball has left the cells reached
+     * by the hole that was pulling it in, that hole is also checked so it can release the ball.
+     * @param ball The ball to attract
+     * @param handler Receives the side effects of a capture
+     */
+    private void attractBall(Ball ball, CaptureHandler handler) {
+        Hole[] nearby = getHolesNear(ball.getX(), ball.getY());
+        Hole previous = ball.getAttractingHole();
+        boolean previousNearby = false;
+        for (int j = 0; j < nearby.length && !ball.isCaptured(); j++) {
+            nearby[j].attractBall(ball, handler);
+            previousNearby |= nearby[j] == previous;
+        }
+        if (previous != null && !previousNearby && !ball.isCaptured()) {
+            previous.attractBall(ball, handler);
+        }
+    }
+
+    /**
+     * Renders the current game state without advancing it.
+     */
+    void render() {
+        if (boardLayer == null) {
+            boardLayer = createGraphics(BOARD_WIDTH * CELLSIZE, BOARD_HEIGHT * CELLSIZE);
+            boardLayerDirty = true;
+        }
+        boolean boardChanged = boardLayerDirty;
+        if (boardLayerDirty) {
+            bakeBoardLayer();
+        }
+        boolean linesRebuilt = updateLineLayers();
+
+        if (dirtyRectRendering) {
+            if (boardChanged || linesRebuilt) {
+                dirtyRegions.markFull();
+            }
+            renderDirty();
+        } else {
+            renderFull();
+        }
+        dirtyRegions.clear();
+    }
+
+    /**
+     * Repaints the whole window.
+     */
+    private void renderFull() {
+        background(200);
+        drawHud();
+
+        pushMatrix();
+        translate(0, TOP_MARGIN);
+
+        // 1. Draw the static board (tiles and board entities, including spawners) as one image
+        image(boardLayer, 0, 0);
+
+        // 2. Draw balls on top
+        for (int i = 0; i < balls.size(); i++) {
+            balls.get(i).draw(this, renderAlpha);
+        }
+
+        // 3. Draw player lines
+        image(inkLayer, 0, 0);
+        if (currentLine != null) {
+            image(strokeLayer, 0, 0);
+        }
+
+        popMatrix();
+    }
+
+    /**
+     * Repaints only what changed since the last frame: the HUD when any of its text or the ball
+     * queue changed, and on the board the areas balls left or moved into and new ink. Each dirty
+     * board area is restored from the board layer, the balls are drawn again, and the ink is laid
+     * back over the area. Relies on the renderer keeping the previous frame, as JAVA2D does.
+     */
+    private void renderDirty() {
+        int hudState = hudState();
+        if (fullRepaintPending) {
+            background(200);
+            dirtyRegions.markFull();
+        }
+        if (fullRepaintPending || hudState != lastHudState) {
+            noStroke();
+            fill(200);
+            rect(0, 0, width, TOP_MARGIN);
+            drawHud();
+            lastHudState = hudState;
+        }
+        fullRepaintPending = false;
 
+        // Balls are dirty where they were drawn last frame and where they are now
+        for (int i = 0; i < drawnBallCount; i++) {
+            dirtyRegions.add(drawnBallBounds[i * 4], drawnBallBounds[i * 4 + 1],
+                    drawnBallBounds[i * 4 + 2], drawnBallBounds[i * 4 + 3]);
+        }
+        if (drawnBallBounds.length < balls.size() * 4) {
+            drawnBallBounds = new float[balls.size() * 4];
+        }
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            float reach = ball.getRadius() + 1;
+            float drawX = ball.getRenderX(renderAlpha);
+            float drawY = ball.getRenderY(renderAlpha);
+            drawnBallBounds[i * 4] = drawX - reach;
+            drawnBallBounds[i * 4 + 1] = drawY - reach;
+            drawnBallBounds[i * 4 + 2] = drawX + reach;
+            drawnBallBounds[i * 4 + 3] = drawY + reach;
+            dirtyRegions.add(drawnBallBounds[i * 4], drawnBallBounds[i * 4 + 1],
+                    drawnBallBounds[i * 4 + 2], drawnBallBounds[i * 4 + 3]);
+        }
+        drawnBallCount = balls.size();
+
+        pushMatrix();
+        translate(0, TOP_MARGIN);
+        lastRepaintArea = 0;
+        for (int i = 0; i < dirtyRegions.size(); i++) {
+            drawRegion(boardLayer, i);
+            lastRepaintArea += dirtyRegions.getWidth(i) * dirtyRegions.getHeight(i);
+        }
+        for (int i = 0; i < balls.size(); i++) {
+            balls.get(i).draw(this, renderAlpha);
+        }
+        for (int i = 0; i < dirtyRegions.size(); i++) {
+            drawRegion(inkLayer, i);
+            if (currentLine != null) {
+                drawRegion(strokeLayer, i);
+            }
+        }
         popMatrix();
+    }
 
+    /**
+     * Draws the part of a board-sized layer that lies under one of the dirty regions.
+     * @param layer The layer to draw from
+     * @param region The index of the dirty region
+     */
+    private void drawRegion(PGraphics layer, int region) {
+        int x = dirtyRegions.getX(region);
+        int y = dirtyRegions.getY(region);
+        int w = dirtyRegions.getWidth(region);
+        int h = dirtyRegions.getHeight(region);
+        image(layer, x, y, w, h, x, y, x + w, y + h);
+    }
+
+    /**
+     * Draws the HUD above the board: score, time, ball queue and any game state message.
+     */
+    private void drawHud() {
+        drawUI();
+        drawBallQueue();
+
+        if (levelEnded && !levelWon) {
+            textAlign(RIGHT, TOP);
+            fill(0);
+            textSize(20);
+
+            text("=== TIME'S UP ===", 430, TOP_MARGIN - 50);
+        }
+    }
+
+    /**
+     * Combines everything the HUD shows into one value, so a change in any of it can be detected
+     * without drawing the HUD.
+     * @return A value that changes whenever the drawn HUD would change
+     */
+    private int hudState() {
+        int state = score;
+        state = 31 * state + (int) Math.floor(levelTimer / (double) FPS);
+        state = 31 * state + (ballQueue.isEmpty() ? 0 : Math.round(spawnTimer / FPS * 10));
+        state = 31 * state + ballQueue.hashCode();
+        state = 31 * state + (isSliding ? slideProgress : -1);
+        state = 31 * state + Objects.hashCode(slidingBallColor);
+        state = 31 * state + (gameOver ? 1 : 0) + (paused ? 2 : 0) + (levelEnded && !levelWon ? 4 : 0);
+        return state;
+    }
+
+    /**
+     * Moves a ball by its velocity for one frame. The ball is first swept against the walls
+     * around its path, so a fast ball stops and bounces at the first wall it touches instead
+     * of passing through a wall or a wall corner between frames.
+     * @param ball The ball to move
+     * @return True if the ball hit a wall along its path
+     */
+    boolean moveBall(Ball ball) {
+        if (ball.isCaptured()) {
+            return false;
+        }
+
+        float radius = ball.getRadius();
+        float endX = ball.getX() + ball.getVx();
+        float endY = ball.getY() + ball.getVy();
+        int minX = Math.max(0, (int) Math.floor((Math.min(ball.getX(), endX) - radius) / CELLSIZE));
+        int maxX = Math.min(BOARD_WIDTH - 1, (int) Math.floor((Math.max(ball.getX(), endX) + radius) / CELLSIZE));
+        int minY = Math.max(0, (int) Math.floor((Math.min(ball.getY(), endY) - radius) / CELLSIZE));
+        int maxY = Math.min(BOARD_HEIGHT - 1, (int) Math.floor((Math.max(ball.getY(), endY) + radius) / CELLSIZE));
+
+        Wall firstWall = null;
+        float earliest = Collidable.NO_IMPACT;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                Wall wall = wallGrid[x][y];
+                if (wall != null) {
+                    float t = wall.impactTime(ball);
+                    if (t < earliest) {
+                        earliest = t;
+                        firstWall = wall;
+                    }
+                }
+            }
+        }
+
+        if (firstWall == null) {
+            ball.update();
+            return false;
+        }
+
+        // Stop at the point of contact and drop the rest of this frame's movement
+        ball.setX(ball.getX() + ball.getVx() * earliest);
+        ball.setY(ball.getY() + ball.getVy() * earliest);
+        firstWall.bounce(ball);
+        return true;
+    }
+
+    /**
+     * Checks a ball against the walls in the grid cells overlapped by its bounding circle,
+     * which is usually a 3x3 neighbourhood, instead of against every wall on the board.
+     * @param ball The ball to check
+     * @return True if the ball collided with a wall
+     */
+    boolean checkWallCollisions(Ball ball) {
+        float radius = ball.getRadius();
+        int minX = Math.max(0, (int) Math.floor((ball.getX() - radius) / CELLSIZE));
+        int maxX = Math.min(BOARD_WIDTH - 1, (int) Math.floor((ball.getX() + radius) / CELLSIZE));
+        int minY = Math.max(0, (int) Math.floor((ball.getY() - radius) / CELLSIZE));
+        int maxY = Math.min(BOARD_HEIGHT - 1, (int) Math.floor((ball.getY() + radius) / CELLSIZE));
+
+        // Same row-major order as the layout file, so the first wall hit matches a full scan
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                Wall wall = wallGrid[x][y];
+                if (wall != null && wall.checkCollision(ball)) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -718,8 +1604,7 @@ public class App extends PApplet{
             levelWon = true;
             timeBonus = levelTimer;
             playerLines.clear();
-            spawners.clear();
-            speedTiles.clear();
+            lineIndex.clear();
             //System.out.println("Victory condition met. Level won!");
         }
     }
@@ -745,10 +1630,9 @@ public class App extends PApplet{
      */
     void performWinAnimationStep() {
 
-        grid[leftX][leftY] = new Tile(leftX, leftY, null, wall4, wall4);
-        grid[rightX][rightY] = new Tile(rightX, rightY, null, wall4, wall4);
-        grid[leftX][leftY].draw(this);
-        grid[rightX][rightY].draw(this);
+        tileCodes[leftX][leftY] = TileTemplate.WIN_WALL;
+        tileCodes[rightX][rightY] = TileTemplate.WIN_WALL;
+        boardLayerDirty = true;
 
 
         updatePosition(leftX, leftY, true);
@@ -796,7 +1680,7 @@ public class App extends PApplet{
     void spawnNextBall() {
         if (!ballQueue.isEmpty()) {
             String nextBallColor = ballQueue.remove(0);
-            PImage ballImage = getBallImageByColor(nextBallColor);
+            Sprite ballImage = getBallImageByColor(nextBallColor);
             int ballType = getTypeByColor(nextBallColor);
 
             isSliding = true;
@@ -807,7 +1691,7 @@ public class App extends PApplet{
             if (!spawners.isEmpty()) {
                 Spawner spawner = spawners.get(random.nextInt(spawners.size()));
                 Ball newBall = new Ball(spawner.getX(), spawner.getY(), ballImage, ballType);
-                drawables.add(newBall);
+                balls.add(newBall);
             }
         }
     }
@@ -824,15 +1708,113 @@ public class App extends PApplet{
         text(message, WIDTH - textWidth(message) / 2 - 60, 25);
     }
 
+    /**
+     * Renders the tiles and board entities into the board layer. The drawables draw through this
+     * sketch, so the sketch's graphics are pointed at the layer while it is being rendered.
+     */
+    private void bakeBoardLayer() {
+        PGraphics screen = g;
+        g = boardLayer;
+        boardLayer.beginDraw();
+        boardLayer.clear();
+        try {
+            drawGrid();
+            for (int i = 0; i < walls.size(); i++) {
+                walls.get(i).draw(this);
+            }
+            for (int i = 0; i < holes.size(); i++) {
+                holes.get(i).draw(this);
+            }
+            for (int i = 0; i < spawners.size(); i++) {
+                spawners.get(i).draw(this);
+            }
+            for (int i = 0; i < speedTiles.size(); i++) {
+                speedTiles.get(i).draw(this);
+            }
+        } finally {
+            boardLayer.endDraw();
+            g = screen;
+        }
+        boardLayerDirty = false;
+    }
+
+    /**
+     * Brings the player line layers up to date. Finished lines stay in the ink layer, which is only
+     * extended with newly finished lines, and rendered again from scratch when a line is erased,
+     * cleared or used up by a ball. The line still being drawn only has its new segments added.
+     * The areas of new ink are recorded as dirty regions.
+     * @return Whether the ink layer was rendered again from scratch
+     */
+    private boolean updateLineLayers() {
+        if (inkLayer == null) {
+            inkLayer = createGraphics(BOARD_WIDTH * CELLSIZE, BOARD_HEIGHT * CELLSIZE);
+            strokeLayer = createGraphics(BOARD_WIDTH * CELLSIZE, BOARD_HEIGHT * CELLSIZE);
+            inkedLines.clear();
+        }
+
+        // Lines are only ever used up, never restored, so a changed count means a line has to disappear
+        boolean rebuild = inkedLines.size() > playerLines.size();
+        int collided = 0;
+        for (int i = 0; i < inkedLines.size() && !rebuild; i++) {
+            PlayerLine line = inkedLines.get(i);
+            rebuild = playerLines.get(i) != line;
+            if (line.hasCollided()) {
+                collided++;
+            }
+        }
+        rebuild |= collided != inkedCollidedLines;
+
+        if (rebuild || inkedLines.size() < playerLines.size()) {
+            inkLayer.beginDraw();
+            if (rebuild) {
+                inkLayer.clear();
+                inkedLines.clear();
+                inkedCollidedLines = 0;
+            }
+            for (int i = inkedLines.size(); i < playerLines.size(); i++) {
+                PlayerLine line = playerLines.get(i);
+                line.drawInto(inkLayer);
+                line.markDirty(dirtyRegions, 0);
+                inkedLines.add(line);
+                if (line.hasCollided()) {
+                    inkedCollidedLines++;
+                }
+            }
+            inkLayer.endDraw();
+        }
+
+        if (currentLine != strokeLine) {
+            if (strokeLine != null) {
+                strokeLine.markDirty(dirtyRegions, 0);
+            }
+            strokeLayer.beginDraw();
+            strokeLayer.clear();
+            strokeLayer.endDraw();
+            strokeLine = currentLine;
+            strokePoints = 0;
+        }
+        if (currentLine != null) {
+            int pointCount = currentLine.getPoints().size();
+            if (strokePoints < pointCount) {
+                strokeLayer.beginDraw();
+                currentLine.drawSegments(strokeLayer, strokePoints);
+                strokeLayer.endDraw();
+                currentLine.markDirty(dirtyRegions, strokePoints);
+                strokePoints = pointCount;
+            }
+        }
+        return rebuild;
+    }
+
     /**
      * Draws the game grid.
      */
     private void drawGrid() {
         for (int x = 0; x < BOARD_WIDTH; x++) {
             for (int y = 0; y < BOARD_HEIGHT; y++) {
-                Tile tile = grid[x][y];
-                if (tile != null && tile.isEmpty() && !tile.isCovered()) {
-                    tile.draw(this);
+                TileTemplate template = tileTemplates[tileCodes[x][y]];
+                if (template != null && template.isDrawnWithBoard()) {
+                    template.draw(this, x, y);
                 }
             }
         }
@@ -876,93 +1858,47 @@ public class App extends PApplet{
     }
 
     /**
-     * Gets the list of drawable objects.
-     * @return List of Drawable objects
+     * Removes a captured ball from the board.
+     * @param ball The ball to remove
      */
-    public List<Drawable> getDrawables() {
-        return drawables;
+    public void removeBall(Ball ball) {
+        balls.remove(ball);
     }
 
     /**
-     * Gets the appropriate image for a tile type.
-     * @param tileType The type of the tile
-     * @return The corresponding PImage
-     */
-    PImage getTileOverlayImage(String tileType) {
-        switch (tileType) {
-            case "X": return wall0;
-            case "1": return wall1;
-            case "2": return wall2;
-            case "3": return wall3;
-            case "4": return wall4;
-            case "^": return speedTile1;
-            case "v": return speedTile2;
-            case "<": return speedTile3;
-            case ">": return speedTile4;
-            case "S": return spawner;
-            case "H0": return hole; // Extend this for different hole images
-            case "H1": case "H2": case "H3": case "H4": return loadImage("src/main/resources/inkball/hole" + tileType.charAt(1) + ".png");
-            case "B0": return ball0;
-            case "B1": case "B2": case "B3": case "B4": return loadImage("src/main/resources/inkball/ball" + tileType.charAt(1) + ".png");
-            default: return null;
-        }
-    }
-
-    /**
-     * Creates a Drawable object based on the tile type.
-     * @param tileType The type of the tile
-     * @param x The x-coordinate of the tile
-     * @param y The y-coordinate of the tile
-     * @param overlayImage The image to overlay on the tile
-     * @param typeNumber The number associated with the tile type
-     * @return The corresponding Drawable object
-     */
-    Drawable getDrawableForTileType(String tileType, int x, int y, PImage overlayImage, char typeNumber) {
-        switch (tileType) {
-            case "X":
-            case "1":
-            case "2":
-            case "3":
-            case "4":
-                return new Wall(x, y, overlayImage, typeNumber - '0');
-            case "S":
-                return new Spawner(x, y, overlayImage);
-            case "H0":
-            case "H1":
-            case "H2":
-            case "H3":
-            case "H4":
-                return new Hole(x, y, overlayImage, typeNumber - '0');
-            case "B0":
-            case "B1":
-            case "B2":
-            case "B3":
-            case "B4":
-                return new Ball(x, y, overlayImage, typeNumber - '0');
-            default:
-                return null;
+     * Stops every ball on the board.
+     */
+    private void stopBalls() {
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            ball.setVx(0);
+            ball.setVy(0);
         }
     }
 
+    /**
+     * Gets a snapshot of every drawable object on the board, board entities first and balls last.
+     * Changes to the returned list do not affect the board.
+     * @return List of Drawable objects
+     */
+    public List<Drawable> getDrawables() {
+        List<Drawable> drawables = new ArrayList<>(walls);
+        drawables.addAll(holes);
+        drawables.addAll(spawners);
+        drawables.addAll(speedTiles);
+        for (int i = 0; i < balls.size(); i++) {
+            drawables.add(balls.get(i));
+        }
+        return drawables;
+    }
+
     /**
      * Gets the ball image based on the specified color.
      * @param color The color of the ball
      * @return The corresponding ball image
      */
-    public PImage getBallImageByColor(String color) {
-        switch (color.toLowerCase()) {
-            case "blue":
-                return ball2;
-            case "orange":
-                return ball1;
-            case "green":
-                return ball3;
-            case "yellow":
-                return ball4;
-            case "grey":
-            default:
-                return ball0;
-        }
+    public Sprite getBallImageByColor(String color) {
+        return getBallImageByType(getTypeByColor(color));
     }
 
     /**
@@ -1012,35 +1948,105 @@ public class App extends PApplet{
      * @param type The type number of the ball
      * @return The corresponding ball image
      */
-    public static PImage getBallImageByType(int type) {
-        switch (type) {
-            case 1:
-                return ball1;
-            case 2:
-                return ball2;
-            case 3:
-                return ball3;
-            case 4:
-                return ball4;
-            case 0:
-            default:
-                return ball0;
-        }
+    public static Sprite getBallImageByType(int type) {
+        return ballImages[type >= 1 && type < ballImages.length ? type : 0];
     }
 
     /**
-     * Gets the current game grid.
-     * @return The 2D array representing the game grid
+     * Builds a snapshot of the current game grid as {@code Tile} objects, for tests and tools.
+     * The board only keeps a code per cell, so every call allocates a new grid of new tiles and
+     * should not be used while the game runs; use {@link #getTileCode} or {@link #getTileTemplate}
+     * instead. Entities on occupied cells are not attached to the tiles; they are available from
+     * {@link #getDrawables()}. The tiles carry no images, as the board draws its cells straight
+     * from the sprite sheet through the {@link TileTemplate}s.
+     * @return A new 2D array representing the game grid, with {@code null} for cells outside the layout
      */
     public static Tile[][] getGrid() {
+        if (tileCodes == null) {
+            return null;
+        }
+        Tile[][] grid = new Tile[BOARD_WIDTH][BOARD_HEIGHT];
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                TileTemplate template = tileTemplates[tileCodes[x][y]];
+                if (template != null) {
+                    grid[x][y] = new Tile(x, y, null, null, null);
+                    grid[x][y].setCovered(tileCodes[x][y] == TileTemplate.COVERED);
+                }
+            }
+        }
         return grid;
     }
 
+    /**
+     * Gets the code of a board cell.
+     * @param x The x-coordinate of the cell
+     * @param y The y-coordinate of the cell
+     * @return One of the {@link TileTemplate} codes
+     */
+    static byte getTileCode(int x, int y) {
+        return tileCodes[x][y];
+    }
+
+    /**
+     * Gets the shared template a board cell is drawn with.
+     * @param x The x-coordinate of the cell
+     * @param y The y-coordinate of the cell
+     * @return The cell's template, or {@code null} for a cell outside the layout
+     */
+    static TileTemplate getTileTemplate(int x, int y) {
+        return tileTemplates[tileCodes[x][y]];
+    }
+
     /**
      * The main method to start the application.
-     * @param args Command line arguments (not used)
+     * Passing {@code --headless} runs the game without a window and prints the final score,
+     * optionally limited to a number of simulation steps with {@code --steps N}.
+     * {@code --renderer NAME} picks the renderer backend, and {@code --benchmark N} times N frames
+     * on every level with it and prints the mean and 99th percentile frame times.
+     * @param args Command line arguments
      */
     public static void main(String[] args) {
-        PApplet.main("inkball.App");
+        String renderer = parseOption(args, "--renderer");
+        if (parseOption(args, "--benchmark") != null && renderer != null && resolveRenderer(renderer) == null) {
+            // Timing the fallback renderer under another name would make the results misleading
+            System.out.println(renderer.toUpperCase() + " is not available, skipping");
+            return;
+        }
+        if (Arrays.asList(args).contains("--headless")) {
+            App app = new App();
+            int steps = app.runHeadless(parseSteps(args));
+            System.out.println("Score: " + app.score + " after " + steps + " steps");
+        } else {
+            PApplet.main("inkball.App", args);
+        }
+    }
+
+    /**
+     * Reads the step limit for a headless run from the {@code --steps} argument.
+     * @param args The command-line arguments
+     * @return The number after {@code --steps}, or {@link #DEFAULT_HEADLESS_STEPS} if it is not given
+     */
+    static int parseSteps(String[] args) {
+        String steps = parseOption(args, "--steps");
+        return steps == null ? DEFAULT_HEADLESS_STEPS : Integer.parseInt(steps);
+    }
+
+    /**
+     * Reads the value given after a command-line option, such as {@code P2D} in {@code --renderer P2D}.
+     * @param args The command-line arguments, or {@code null} if there are none
+     * @param option The option to look for
+     * @return The argument following the option, or {@code null} if the option is not given
+     */
+    static String parseOption(String[] args, String option) {
+        if (args == null) {
+            return null;
+        }
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(option)) {
+                return args[i + 1];
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,84 @@
+package inkball;
+
+import processing.core.PImage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The {@code AssetCache} class keeps every decoded image for the life of the process, keyed by
+ * asset name, so each image is decoded once and the same {@code PImage} is shared by every
+ * level, restart and game entity that uses it. Lookups of different assets may run on different
+ * threads at the same time, while each asset is still only decoded once.
+ */
+public final class AssetCache {
+
+    /** The decoded images, by asset name. */
+    private static final Map<String, PImage> images = new ConcurrentHashMap<>();
+
+    /** The number of lookups since the cache was last cleared. */
+    private static final AtomicInteger lookups = new AtomicInteger();
+
+    /** The number of lookups that had to decode their asset since the cache was last cleared. */
+    private static final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Prevents instantiation, as the cache is shared by the whole process.
+     */
+    private AssetCache() {
+    }
+
+    /**
+     * Returns the image with the given name, decoding it the first time it is asked for.
+     * An asset the decoder cannot provide is not cached, so it is tried again on the next lookup.
+     *
+     * @param name    The name of the asset, such as {@code "speedTile1"}.
+     * @param decoder Decodes the asset with the given name, returning {@code null} if it cannot.
+     * @return The decoded image, or {@code null} if the decoder could not provide it.
+     */
+    public static PImage getImage(String name, Function<String, PImage> decoder) {
+        lookups.incrementAndGet();
+        return images.computeIfAbsent(name, key -> {
+            misses.incrementAndGet();
+            return decoder.apply(key);
+        });
+    }
+
+    /**
+     * Returns the number of lookups that found their image already decoded.
+     *
+     * @return The number of cache hits.
+     */
+    public static int getHits() {
+        return lookups.get() - misses.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to decode their image.
+     *
+     * @return The number of cache misses.
+     */
+    public static int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of decoded images held by the cache.
+     *
+     * @return The number of cached images.
+     */
+    public static int size() {
+        return images.size();
+    }
+
+    /**
+     * Discards every decoded image and resets the statistics.
+     */
+    public static void clear() {
+        images.clear();
+        lookups.set(0);
+        misses.set(0);
+    }
+}
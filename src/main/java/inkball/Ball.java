@@ -1,7 +1,6 @@
 package inkball;
 
 import processing.core.PApplet;
-import processing.core.PImage;
 
 /**
  * Represents a ball in the Inkball game. A ball is a moving object that can
@@ -10,16 +9,20 @@ import processing.core.PImage;
  */
 public class Ball implements Drawable {
     private float x, y; // Current x and y coordinates of the ball
-    private PImage image; // Image representing the ball
+    private float previousX, previousY; // Coordinates of the ball at the start of the latest simulation step
+    private Sprite image; // Sprite representing the ball
     private int type; // The type of ball, used for distinguishing colors and behaviors
     private float vx, vy; // Current velocity in the x and y directions
     private float savedVx, savedVy; // Saved velocities for restoring after pause
     private float radius; // Current radius of the ball
-    private static final float ORIGINAL_RADIUS = 12f; // Original radius of the ball
+    static final float ORIGINAL_RADIUS = 12f; // Original radius of the ball
     private static final float MIN_RADIUS = 0.5f; // Minimum allowed radius for the ball
     private static final float SIZE_ADJUSTMENT_SPEED = 2.0f; // Speed of size adjustment when affected by holes
     private boolean captured = false; // Whether the ball has been captured by a hole
+    int listIndex = -1; // Slot in the BallList holding this ball, or -1 if it is not on the board
+    private Hole attractingHole; // The hole currently pulling the ball in, if any
 
+    private static final float START_SPEED = 60f; // Initial speed along each axis, in pixels per second
     private static final int MAX_VX = 4; // Maximum velocity in the x direction
     private static final int MAX_VY = 4; // Maximum velocity in the y direction
 
@@ -28,20 +31,19 @@ public class Ball implements Drawable {
      *
      * @param x the initial x-coordinate of the ball
      * @param y the initial y-coordinate of the ball
-     * @param image the PImage used to display the ball
+     * @param image the sprite used to display the ball
      * @param type the type of ball (used for different colors)
      */
-    public Ball(int x, int y, PImage image, int type) {
+    public Ball(int x, int y, Sprite image, int type) {
         this.x = x * App.CELLSIZE + App.CELLSIZE / 2f;
         this.y = y * App.CELLSIZE + App.CELLSIZE / 2f;
+        this.previousX = this.x;
+        this.previousY = this.y;
         this.image = image;
         this.type = type;
         this.radius = ORIGINAL_RADIUS;
 
-        float baseSpeed = 2.0f;
-        if (App.FPS == 60) {
-            baseSpeed /= 2;
-        }
+        float baseSpeed = START_SPEED / App.FPS;
 
         this.vx = App.random.nextBoolean() ? baseSpeed : -baseSpeed;
         this.vy = App.random.nextBoolean() ? baseSpeed : -baseSpeed;
@@ -54,12 +56,57 @@ public class Ball implements Drawable {
      */
     @Override
     public void draw(PApplet applet) {
-        if (!captured) {
+        draw(applet, 1);
+    }
+
+    /**
+     * Draws the ball part of the way between where it was at the start of the latest simulation
+     * step and where it is now, so motion looks smooth when frames are drawn more often than the
+     * simulation steps.
+     *
+     * @param applet the PApplet instance to draw on
+     * @param alpha how far through the next simulation step the frame is, from 0 (previous position) to 1 (current position)
+     */
+    public void draw(PApplet applet, float alpha) {
+        // Without a sprite, as in a headless run, there is nothing to draw
+        if (!captured && image != null) {
+            float drawX = getRenderX(alpha);
+            float drawY = getRenderY(alpha);
             float diameter = radius * 2;
-            applet.image(image, x - radius, y - radius, diameter, diameter);
+            // Draw a sprite already scaled to this size rather than rescaling it every frame
+            Sprite sprite = BallSpriteCache.get(image, diameter);
+            sprite.draw(applet, drawX - sprite.getWidth() / 2f, drawY - sprite.getHeight() / 2f);
         }
     }
 
+    /**
+     * Records the current position as the start of the next simulation step.
+     */
+    public void storePreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * Gets the x-coordinate to draw the ball at, between its previous and current position.
+     *
+     * @param alpha how far between the previous position (0) and the current position (1)
+     * @return the interpolated x-coordinate
+     */
+    public float getRenderX(float alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate to draw the ball at, between its previous and current position.
+     *
+     * @param alpha how far between the previous position (0) and the current position (1)
+     * @return the interpolated y-coordinate
+     */
+    public float getRenderY(float alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
     /**
      * Updates the position of the ball based on its velocity.
      */
@@ -182,6 +229,24 @@ public class Ball implements Drawable {
 
     // Getter and setter methods
 
+    /**
+     * Gets the hole currently pulling the ball in.
+     *
+     * @return the attracting hole, or null if the ball is not within any hole's attraction radius
+     */
+    public Hole getAttractingHole() {
+        return attractingHole;
+    }
+
+    /**
+     * Sets the hole currently pulling the ball in.
+     *
+     * @param attractingHole the attracting hole, or null if the ball has left it
+     */
+    public void setAttractingHole(Hole attractingHole) {
+        this.attractingHole = attractingHole;
+    }
+
     /**
      * Gets the x-coordinate of the ball.
      *
@@ -0,0 +1,102 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * The {@code BallList} class holds the balls currently on the board. Each ball remembers
+ * its slot in the list, so a captured ball can be removed in constant time by moving the
+ * last ball into its slot. The order of balls is therefore not preserved by removals.
+ */
+public class BallList {
+
+    /** The balls on the board, packed at the start of the array. */
+    private Ball[] balls = new Ball[16];
+
+    /** The number of balls in the list. */
+    private int size;
+
+    /**
+     * Adds a ball to the end of the list. A ball that is already in the list is not added again.
+     *
+     * @param ball The ball to add.
+     */
+    public void add(Ball ball) {
+        if (contains(ball)) {
+            return;
+        }
+        if (size == balls.length) {
+            balls = Arrays.copyOf(balls, size * 2);
+        }
+        ball.listIndex = size;
+        balls[size++] = ball;
+    }
+
+    /**
+     * Removes a ball by swapping the last ball into its slot.
+     *
+     * @param ball The ball to remove.
+     * @return {@code true} if the ball was in the list, {@code false} otherwise.
+     */
+    public boolean remove(Ball ball) {
+        if (!contains(ball)) {
+            return false;
+        }
+        int index = ball.listIndex;
+        Ball last = balls[--size];
+        balls[index] = last;
+        last.listIndex = index;
+        balls[size] = null;
+        ball.listIndex = -1;
+        return true;
+    }
+
+    /**
+     * Checks whether a ball is in the list.
+     *
+     * @param ball The ball to look for.
+     * @return {@code true} if the ball is in the list, {@code false} otherwise.
+     */
+    public boolean contains(Ball ball) {
+        int index = ball.listIndex;
+        return index >= 0 && index < size && balls[index] == ball;
+    }
+
+    /**
+     * Returns the ball at the given position in the list.
+     *
+     * @param index The position of the ball.
+     * @return The ball at that position.
+     */
+    public Ball get(int index) {
+        return balls[index];
+    }
+
+    /**
+     * Returns the number of balls in the list.
+     *
+     * @return The number of balls.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list has no balls.
+     *
+     * @return {@code true} if there are no balls, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every ball from the list.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            balls[i].listIndex = -1;
+            balls[i] = null;
+        }
+        size = 0;
+    }
+}
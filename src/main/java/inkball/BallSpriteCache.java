@@ -0,0 +1,68 @@
+package inkball;
+
+import processing.core.PImage;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The {@code BallSpriteCache} class keeps pre-scaled copies of the ball sprites. A ball being
+ * pulled into a hole shrinks a little every frame, and drawing its sprite at a new size each
+ * frame makes the renderer rescale it every time. Sizes are rounded to whole pixels, and each
+ * sprite is scaled to a given size once, the first time that size is needed, so shrinking balls
+ * are drawn without any scaling. Balls at full size are drawn from the sprite itself, so only
+ * shrinking balls use images of their own.
+ */
+public final class BallSpriteCache {
+
+    /** The scaled copies of each sprite, indexed by diameter in pixels. */
+    private static final Map<Sprite, Sprite[]> scaledSprites = new IdentityHashMap<>();
+
+    /**
+     * Prevents instantiation, as the cache is shared by every ball.
+     */
+    private BallSpriteCache() {
+    }
+
+    /**
+     * Returns the sprite scaled to the given diameter, rounded to a whole number of pixels.
+     * A sprite that is already that size is returned as it is.
+     *
+     * @param sprite   The sprite at its original size, or {@code null} for a ball without one.
+     * @param diameter The size to draw the sprite at.
+     * @return A copy of the sprite scaled to the rounded diameter, the sprite itself if it already
+     *         has that size, or {@code null} if there is no sprite.
+     */
+    public static Sprite get(Sprite sprite, float diameter) {
+        if (sprite == null) {
+            return null;
+        }
+        int size = Math.max(1, Math.round(diameter));
+        if (size == sprite.getWidth() && size == sprite.getHeight()) {
+            return sprite;
+        }
+
+        Sprite[] sizes = scaledSprites.get(sprite);
+        if (sizes == null || sizes.length <= size) {
+            Sprite[] grown = new Sprite[Math.max(size, sprite.getWidth()) + 1];
+            if (sizes != null) {
+                System.arraycopy(sizes, 0, grown, 0, sizes.length);
+            }
+            sizes = grown;
+            scaledSprites.put(sprite, sizes);
+        }
+        if (sizes[size] == null) {
+            PImage scaled = sprite.copyImage();
+            scaled.resize(size, size);
+            sizes[size] = new Sprite(scaled);
+        }
+        return sizes[size];
+    }
+
+    /**
+     * Discards every scaled sprite, for example after the sprites themselves have been reloaded.
+     */
+    public static void clear() {
+        scaledSprites.clear();
+    }
+}
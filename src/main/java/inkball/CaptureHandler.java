@@ -0,0 +1,38 @@
+package inkball;
+
+/**
+ * The {@code CaptureHandler} interface receives the side effects of a hole capturing a ball:
+ * removing it from the board, changing the score and queueing it to respawn.
+ * The game applies them straight away, while a {@code CommandBuffer} records them so they
+ * can be applied later in a fixed order.
+ */
+public interface CaptureHandler {
+
+    /**
+     * Removes a captured ball from the board.
+     *
+     * @param ball The ball to remove.
+     */
+    void removeBall(Ball ball);
+
+    /**
+     * Increases the score for a ball captured by a matching hole.
+     *
+     * @param type The type of the captured ball.
+     */
+    void increaseScore(int type);
+
+    /**
+     * Decreases the score for a ball captured by a hole of the wrong colour.
+     *
+     * @param type The type of the captured ball.
+     */
+    void decreaseScore(int type);
+
+    /**
+     * Queues a ball captured by a hole of the wrong colour to be spawned again.
+     *
+     * @param ball The ball to respawn.
+     */
+    void respawnBall(Ball ball);
+}
@@ -17,4 +17,18 @@ public interface Collidable {
      * @return {@code true} if a collision is detected, {@code false} otherwise.
      */
     boolean checkCollision(Ball ball);
+
+    /** The value returned by {@link #impactTime(Ball)} when the ball does not hit this object. */
+    float NO_IMPACT = Float.POSITIVE_INFINITY;
+
+    /**
+     * Sweeps the ball along its next step, from its current position to its position plus its velocity,
+     * and finds the earliest point at which it first touches this object. This catches fast balls that
+     * would otherwise pass straight through the object between two overlap checks.
+     *
+     * @param ball The {@code Ball} object to sweep against this object.
+     * @return The fraction of the step, between 0 and 1, at which the ball first touches this object,
+     *         or {@link #NO_IMPACT} if it does not touch it during the step.
+     */
+    float impactTime(Ball ball);
 }
@@ -0,0 +1,129 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * The {@code CommandBuffer} class records capture side effects instead of applying them.
+ * Each physics worker writes into its own buffer, and the buffers are replayed into the game
+ * one after another once every worker has finished, so the result does not depend on which
+ * worker finished first. The buffer keeps its storage between steps to avoid allocating.
+ */
+public class CommandBuffer implements CaptureHandler {
+
+    private static final int REMOVE_BALL = 0;
+    private static final int INCREASE_SCORE = 1;
+    private static final int DECREASE_SCORE = 2;
+    private static final int RESPAWN_BALL = 3;
+
+    /** The kind of each recorded command. */
+    private int[] kinds = new int[16];
+
+    /** The ball each recorded command applies to, or {@code null} for score commands. */
+    private Ball[] balls = new Ball[16];
+
+    /** The ball type each recorded score command applies to. */
+    private int[] types = new int[16];
+
+    /** The number of recorded commands. */
+    private int size;
+
+    /**
+     * Records that a ball should be removed from the board.
+     *
+     * @param ball The ball to remove.
+     */
+    @Override
+    public void removeBall(Ball ball) {
+        record(REMOVE_BALL, ball, 0);
+    }
+
+    /**
+     * Records that the score should be increased for a ball type.
+     *
+     * @param type The type of the captured ball.
+     */
+    @Override
+    public void increaseScore(int type) {
+        record(INCREASE_SCORE, null, type);
+    }
+
+    /**
+     * Records that the score should be decreased for a ball type.
+     *
+     * @param type The type of the captured ball.
+     */
+    @Override
+    public void decreaseScore(int type) {
+        record(DECREASE_SCORE, null, type);
+    }
+
+    /**
+     * Records that a ball should be queued to respawn.
+     *
+     * @param ball The ball to respawn.
+     */
+    @Override
+    public void respawnBall(Ball ball) {
+        record(RESPAWN_BALL, ball, 0);
+    }
+
+    /**
+     * Applies every recorded command to the target in the order it was recorded.
+     *
+     * @param target The handler that applies the commands, usually the game itself.
+     */
+    public void replay(CaptureHandler target) {
+        for (int i = 0; i < size; i++) {
+            switch (kinds[i]) {
+                case REMOVE_BALL:
+                    target.removeBall(balls[i]);
+                    break;
+                case INCREASE_SCORE:
+                    target.increaseScore(types[i]);
+                    break;
+                case DECREASE_SCORE:
+                    target.decreaseScore(types[i]);
+                    break;
+                case RESPAWN_BALL:
+                    target.respawnBall(balls[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Discards every recorded command.
+     */
+    public void clear() {
+        Arrays.fill(balls, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of recorded commands.
+     *
+     * @return The number of commands.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a command, growing the storage if it is full.
+     *
+     * @param kind The kind of command.
+     * @param ball The ball the command applies to, if any.
+     * @param type The ball type the command applies to, if any.
+     */
+    private void record(int kind, Ball ball, int type) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            balls = Arrays.copyOf(balls, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+        }
+        kinds[size] = kind;
+        balls[size] = ball;
+        types[size] = type;
+        size++;
+    }
+}
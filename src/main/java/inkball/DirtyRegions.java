@@ -0,0 +1,162 @@
+package inkball;
+
+/**
+ * The {@code DirtyRegions} class collects the rectangles of a surface that have to be repainted
+ * in the next frame. Rectangles are clamped to the surface and snapped outwards to whole pixels,
+ * and a new rectangle that overlaps or touches a recorded one is merged into it. Once too many
+ * separate rectangles are recorded, the whole surface is treated as dirty instead, since
+ * repainting it in one go is cheaper than many small repaints.
+ */
+public class DirtyRegions {
+
+    /** The width of the surface in pixels. */
+    private final int width;
+
+    /** The height of the surface in pixels. */
+    private final int height;
+
+    /** The number of separate rectangles recorded before the whole surface is marked dirty. */
+    private final int maxRegions;
+
+    /** The recorded rectangles as {left, top, right, bottom} groups, with the right and bottom edges exclusive. */
+    private final int[] bounds;
+
+    /** The number of recorded rectangles. */
+    private int count;
+
+    /** Whether the whole surface is dirty. */
+    private boolean full;
+
+    /**
+     * Constructs an empty set of dirty regions for a surface of the given size.
+     *
+     * @param width      The width of the surface in pixels.
+     * @param height     The height of the surface in pixels.
+     * @param maxRegions The number of separate rectangles to record before marking the whole surface dirty.
+     */
+    public DirtyRegions(int width, int height, int maxRegions) {
+        this.width = width;
+        this.height = height;
+        this.maxRegions = maxRegions;
+        this.bounds = new int[maxRegions * 4];
+    }
+
+    /**
+     * Marks the rectangle between two corners as dirty.
+     *
+     * @param minX The left edge of the rectangle.
+     * @param minY The top edge of the rectangle.
+     * @param maxX The right edge of the rectangle.
+     * @param maxY The bottom edge of the rectangle.
+     */
+    public void add(float minX, float minY, float maxX, float maxY) {
+        if (full) {
+            return;
+        }
+        int left = Math.max(0, (int) Math.floor(minX));
+        int top = Math.max(0, (int) Math.floor(minY));
+        int right = Math.min(width, (int) Math.ceil(maxX));
+        int bottom = Math.min(height, (int) Math.ceil(maxY));
+        if (left >= right || top >= bottom) {
+            return;
+        }
+
+        for (int i = 0; i < count * 4; i += 4) {
+            if (left <= bounds[i + 2] && right >= bounds[i] && top <= bounds[i + 3] && bottom >= bounds[i + 1]) {
+                bounds[i] = Math.min(bounds[i], left);
+                bounds[i + 1] = Math.min(bounds[i + 1], top);
+                bounds[i + 2] = Math.max(bounds[i + 2], right);
+                bounds[i + 3] = Math.max(bounds[i + 3], bottom);
+                return;
+            }
+        }
+
+        if (count == maxRegions) {
+            markFull();
+            return;
+        }
+        bounds[count * 4] = left;
+        bounds[count * 4 + 1] = top;
+        bounds[count * 4 + 2] = right;
+        bounds[count * 4 + 3] = bottom;
+        count++;
+    }
+
+    /**
+     * Marks the whole surface as dirty. It is then reported as a single rectangle covering the surface.
+     */
+    public void markFull() {
+        full = true;
+        count = 1;
+        bounds[0] = 0;
+        bounds[1] = 0;
+        bounds[2] = width;
+        bounds[3] = height;
+    }
+
+    /**
+     * Checks whether the whole surface is dirty.
+     *
+     * @return {@code true} if the whole surface has to be repainted, {@code false} otherwise.
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Returns the number of dirty rectangles.
+     *
+     * @return The number of rectangles.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the left edge of a dirty rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The left edge in pixels.
+     */
+    public int getX(int index) {
+        return bounds[index * 4];
+    }
+
+    /**
+     * Returns the top edge of a dirty rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The top edge in pixels.
+     */
+    public int getY(int index) {
+        return bounds[index * 4 + 1];
+    }
+
+    /**
+     * Returns the width of a dirty rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The width in pixels.
+     */
+    public int getWidth(int index) {
+        return bounds[index * 4 + 2] - bounds[index * 4];
+    }
+
+    /**
+     * Returns the height of a dirty rectangle.
+     *
+     * @param index The index of the rectangle.
+     * @return The height in pixels.
+     */
+    public int getHeight(int index) {
+        return bounds[index * 4 + 3] - bounds[index * 4 + 1];
+    }
+
+    /**
+     * Forgets every dirty rectangle, ready for the next frame.
+     */
+    public void clear() {
+        count = 0;
+        full = false;
+    }
+}
@@ -0,0 +1,88 @@
+package inkball;
+
+import java.util.Arrays;
+
+/**
+ * The {@code FrameTimer} class collects frame times and summarises them as a mean and a
+ * percentile, so renderer backends can be compared on the same levels. Samples are kept in a
+ * growing array of nanoseconds and only sorted when a percentile is asked for.
+ */
+public class FrameTimer {
+
+    /** The recorded frame times in nanoseconds. */
+    private long[] samples = new long[256];
+
+    /** The number of recorded frame times. */
+    private int count;
+
+    /**
+     * Records the time one frame took.
+     *
+     * @param nanos The frame time in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Returns the number of recorded frame times.
+     *
+     * @return The number of frames.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean frame time.
+     *
+     * @return The mean in milliseconds, or 0 if nothing was recorded.
+     */
+    public double meanMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Returns the frame time that the given fraction of frames did not exceed, using the
+     * nearest-rank method.
+     *
+     * @param fraction The fraction of frames, such as {@code 0.99} for the 99th percentile.
+     * @return The percentile in milliseconds, or 0 if nothing was recorded.
+     */
+    public double percentileMillis(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(fraction * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * Forgets every recorded frame time.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Describes the recorded frame times.
+     *
+     * @return The number of frames with their mean and 99th percentile frame time.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d frames, mean %.2f ms, p99 %.2f ms", count, meanMillis(), percentileMillis(0.99));
+    }
+}
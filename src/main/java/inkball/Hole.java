@@ -1,7 +1,6 @@
 package inkball;
 
 import processing.core.PApplet;
-import processing.core.PImage;
 
 /**
  * Represents a hole in the game that can attract and capture balls.
@@ -10,11 +9,10 @@ import processing.core.PImage;
  */
 public class Hole implements Drawable {
     private float x, y;  // Position of the hole on the grid
-    private PImage image;  // Image of the hole
+    private Sprite image;  // Image of the hole
     private int type;  // Type of the hole, used for matching ball types
-    private static final float ATTRACT_RADIUS = 32;  // The radius in which the hole attracts balls
+    static final float ATTRACT_RADIUS = 32;  // The radius in which the hole attracts balls
     private static final float ATTRACTION_FORCE = 0.005f; // Force of attraction, 0.5% of the distance vector
-    private boolean wasWithinAttractRadius = false;  // Flag to check if the ball was within attraction radius
 
     /**
      * Constructs a Hole object with a given position, image, and type.
@@ -24,7 +22,7 @@ public class Hole implements Drawable {
      * @param image The image representing the hole.
      * @param type The type of the hole, used to determine score interactions.
      */
-    public Hole(int x, int y, PImage image, int type) {
+    public Hole(int x, int y, Sprite image, int type) {
         this.x = (x + 1) * App.CELLSIZE;
         this.y = (y + 1) * App.CELLSIZE;
         this.image = image;
@@ -38,7 +36,9 @@ public class Hole implements Drawable {
      */
     @Override
     public void draw(PApplet app) {
-        app.image(image, x - App.CELLSIZE, y - App.CELLSIZE, App.CELLSIZE * 2, App.CELLSIZE * 2);
+        if (image != null) {
+            image.draw(app, x - App.CELLSIZE, y - App.CELLSIZE, App.CELLSIZE * 2, App.CELLSIZE * 2);
+        }
     }
 
     /**
@@ -53,19 +53,21 @@ public class Hole implements Drawable {
      * Attracts a ball toward the hole and captures it if it gets close enough.
      * If the ball is within the attraction radius, the hole will apply a force to pull the ball closer.
      * The ball's size is reduced as it approaches, and if it gets close enough, it is captured.
+     * Each ball remembers which hole is pulling it, so its size is only reset when it leaves that hole.
      *
      * @param ball The ball being attracted.
-     * @param app The main application instance.
+     * @param handler Receives the capture's side effects, either the game itself or a command buffer.
      */
-    public void attractBall(Ball ball, App app) {
+    public void attractBall(Ball ball, CaptureHandler handler) {
         if (ball.isCaptured()) return;
 
         float dx = x - ball.getX();
         float dy = y - ball.getY();
-        float dist = PApplet.sqrt(dx * dx + dy * dy);
+        float distSquared = dx * dx + dy * dy;
 
-        if (dist <= ATTRACT_RADIUS) {
-            wasWithinAttractRadius = true;
+        if (distSquared <= ATTRACT_RADIUS * ATTRACT_RADIUS) {
+            float dist = PApplet.sqrt(distSquared);
+            ball.setAttractingHole(this);
             // Apply attraction force
             float fx = ATTRACTION_FORCE * dx;
             float fy = ATTRACTION_FORCE * dy;
@@ -76,37 +78,52 @@ public class Hole implements Drawable {
 
             // Capture the ball if it's close enough
             if (dist < 1 || ball.getRadius() <= 4f) {
-                captureBall(ball, app);
+                captureBall(ball, handler);
             }
         } else {
             // Reset ball size if it moves out of the attraction radius
-            if (wasWithinAttractRadius) {
+            if (ball.getAttractingHole() == this) {
                 ball.resetSize();
+                ball.setAttractingHole(null);
             }
-            wasWithinAttractRadius = false;
         }
     }
 
+    /**
+     * Checks whether any point of a grid cell is within the attraction radius of the hole.
+     *
+     * @param cellX The x-coordinate of the cell (in grid units).
+     * @param cellY The y-coordinate of the cell (in grid units).
+     * @return {@code true} if a ball in the cell could be attracted by this hole, {@code false} otherwise.
+     */
+    public boolean attractsCell(int cellX, int cellY) {
+        float left = cellX * App.CELLSIZE;
+        float top = cellY * App.CELLSIZE;
+        float dx = x - Math.max(left, Math.min(x, left + App.CELLSIZE));
+        float dy = y - Math.max(top, Math.min(y, top + App.CELLSIZE));
+        return dx * dx + dy * dy <= ATTRACT_RADIUS * ATTRACT_RADIUS;
+    }
+
     /**
      * Captures the ball when it reaches the center of the hole or becomes small enough.
      * If the ball matches the hole's type, the player's score is increased.
      * If the ball type doesn't match, the score decreases and the ball is respawned.
      *
      * @param ball The ball to capture.
-     * @param app The main application instance.
+     * @param handler Receives the capture's side effects, either the game itself or a command buffer.
      */
-    private void captureBall(Ball ball, App app) {
+    private void captureBall(Ball ball, CaptureHandler handler) {
         if (!ball.isCaptured()) {
             ball.setCaptured(true);
 
-            app.getDrawables().remove(ball);
+            handler.removeBall(ball);
 
             // Increase or decrease the score based on the ball type and hole type
             if (ball.getType() == type || ball.getType() == 0 || type == 0) {
-                app.increaseScore(ball.getType());
+                handler.increaseScore(ball.getType());
             } else {
-                app.decreaseScore(ball.getType());
-                app.respawnBall(ball);
+                handler.decreaseScore(ball.getType());
+                handler.respawnBall(ball);
             }
         }
     }
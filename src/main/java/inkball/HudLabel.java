@@ -0,0 +1,123 @@
+package inkball;
+
+import processing.core.PApplet;
+import processing.core.PGraphics;
+
+import java.util.function.IntFunction;
+
+/**
+ * The {@code HudLabel} class draws a piece of HUD text, such as the score, from a cached image.
+ * The text depends on a single number, and is only formatted and rasterised again when that
+ * number changes, so an unchanged label costs one {@code image()} call per frame.
+ */
+public class HudLabel {
+
+    /** The width of the cached image in pixels. */
+    private final int width;
+
+    /** The height of the cached image in pixels. */
+    private final int height;
+
+    /** The horizontal alignment of the text, as passed to {@code textAlign}. */
+    private final int alignX;
+
+    /** The vertical alignment of the text, as passed to {@code textAlign}. */
+    private final int alignY;
+
+    /** The size of the text. */
+    private final float textSize;
+
+    /** Turns the label's value into the text to draw. */
+    private final IntFunction<String> format;
+
+    /** The cached image of the text, created on first use. */
+    private PGraphics image;
+
+    /** The value the cached image was rendered for. */
+    private int renderedValue;
+
+    /** The number of times the text has been rasterised. */
+    private int renderCount;
+
+    /**
+     * Constructs a label with the given image size and text style.
+     *
+     * @param width    The width of the cached image, large enough for the longest text.
+     * @param height   The height of the cached image.
+     * @param alignX   The horizontal alignment of the text, {@code LEFT}, {@code CENTER} or {@code RIGHT}.
+     * @param alignY   The vertical alignment of the text, {@code TOP}, {@code CENTER} or {@code BOTTOM}.
+     * @param textSize The size of the text.
+     * @param format   Turns the label's value into the text to draw.
+     */
+    public HudLabel(int width, int height, int alignX, int alignY, float textSize, IntFunction<String> format) {
+        this.width = width;
+        this.height = height;
+        this.alignX = alignX;
+        this.alignY = alignY;
+        this.textSize = textSize;
+        this.format = format;
+    }
+
+    /**
+     * Draws the label for a value, anchored at a point the same way {@code text()} would anchor
+     * the text with this label's alignment. The text is only rasterised again if the value changed.
+     *
+     * @param app   The sketch to draw the label on.
+     * @param value The value to show.
+     * @param x     The x-coordinate of the text's anchor.
+     * @param y     The y-coordinate of the text's anchor.
+     */
+    public void draw(PApplet app, int value, float x, float y) {
+        if (image == null) {
+            image = app.createGraphics(width, height);
+            render(value);
+        } else if (value != renderedValue) {
+            render(value);
+        }
+        app.image(image, x - anchorX(), y - anchorY());
+    }
+
+    /**
+     * Returns the number of times the text has been rasterised.
+     *
+     * @return The number of renders.
+     */
+    public int getRenderCount() {
+        return renderCount;
+    }
+
+    /**
+     * Rasterises the text for a value into the cached image.
+     *
+     * @param value The value to show.
+     */
+    private void render(int value) {
+        image.beginDraw();
+        image.clear();
+        image.textAlign(alignX, alignY);
+        image.textSize(textSize);
+        image.fill(0);
+        image.text(format.apply(value), anchorX(), anchorY());
+        image.endDraw();
+        renderedValue = value;
+        renderCount++;
+    }
+
+    /**
+     * Returns where the text's anchor sits horizontally inside the cached image.
+     *
+     * @return The x-coordinate of the anchor in the image.
+     */
+    private float anchorX() {
+        return alignX == PApplet.LEFT ? 0 : alignX == PApplet.RIGHT ? width : width / 2f;
+    }
+
+    /**
+     * Returns where the text's anchor sits vertically inside the cached image.
+     *
+     * @return The y-coordinate of the anchor in the image.
+     */
+    private float anchorY() {
+        return alignY == PApplet.TOP ? 0 : alignY == PApplet.BOTTOM ? height : height / 2f;
+    }
+}
@@ -57,4 +57,25 @@ public class Level {
             balls.add(ballsArray.getString(i));
         }
     }
+
+    /**
+     * Constructs a {@code Level} object from values that have already been read, such as those
+     * decoded from a compiled level pack.
+     *
+     * @param layout                The name of the layout file the level was built from.
+     * @param time                  The time available to complete the level, in seconds.
+     * @param spawnInterval         The interval between ball spawns, in seconds.
+     * @param scoreIncreaseModifier The modifier for correct captures.
+     * @param scoreDecreaseModifier The modifier for wrong captures.
+     * @param balls                 The colors of the balls to spawn, in order.
+     */
+    public Level(String layout, int time, float spawnInterval, float scoreIncreaseModifier,
+                 float scoreDecreaseModifier, List<String> balls) {
+        this.layout = layout;
+        this.time = time;
+        this.spawnInterval = spawnInterval;
+        this.scoreIncreaseModifier = scoreIncreaseModifier;
+        this.scoreDecreaseModifier = scoreDecreaseModifier;
+        this.balls = new ArrayList<>(balls);
+    }
 }
@@ -0,0 +1,296 @@
+package inkball;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The {@code LevelLayout} class is a level's layout with every character already resolved: the
+ * {@link TileTemplate} code of each board cell, and a table of the entities to place on the board.
+ * A layout file is parsed into one once, when it is read or compiled into a {@link LevelPack}, so
+ * building the board is a copy of the codes and one constructor call per entity.
+ *
+ * <p>Each entity takes four bytes of the table: its kind, its type, and its x and y cell. The type
+ * is the color of a wall, hole or ball, and the direction character of a speed tile.
+ */
+public final class LevelLayout {
+
+    /** The kind of a wall entity. */
+    public static final byte WALL = 0;
+
+    /** The kind of a hole entity, which covers two by two cells from its position. */
+    public static final byte HOLE = 1;
+
+    /** The kind of a ball placed on the board when the level starts. */
+    public static final byte BALL = 2;
+
+    /** The kind of a spawner entity. */
+    public static final byte SPAWNER = 3;
+
+    /** The kind of a speed tile entity. */
+    public static final byte SPEED_TILE = 4;
+
+    /** The number of bytes each entity takes in the table. */
+    static final int ENTITY_SIZE = 4;
+
+    /** The speed tile directions, in the order of their images. */
+    private static final String DIRECTIONS = "^v<>";
+
+    /** The cell codes, indexed by x and then y. */
+    private final byte[][] codes;
+
+    /** The entity table, {@link #ENTITY_SIZE} bytes per entity, in the order they are placed. */
+    private final byte[] entities;
+
+    /**
+     * Constructs a layout from resolved cell codes and an entity table.
+     *
+     * @param codes    The cell codes, indexed by x and then y.
+     * @param entities The entity table.
+     */
+    LevelLayout(byte[][] codes, byte[] entities) {
+        this.codes = codes;
+        this.entities = entities;
+    }
+
+    /**
+     * Resolves the rows of a layout file. Each character is a cell, except that an {@code H} or
+     * {@code B} followed by a digit is a hole or ball of that color taking both cells.
+     *
+     * @param rows The rows of the layout, one character per cell.
+     * @return The resolved layout.
+     * @throws IllegalArgumentException If the layout is larger than the board.
+     */
+    public static LevelLayout parse(String[] rows) {
+        byte[][] codes = new byte[App.BOARD_WIDTH][App.BOARD_HEIGHT];
+        byte[] entities = new byte[App.BOARD_WIDTH * App.BOARD_HEIGHT * ENTITY_SIZE];
+        int count = 0;
+        if (rows.length > App.BOARD_HEIGHT) {
+            throw new IllegalArgumentException("Layout has more than " + App.BOARD_HEIGHT + " rows");
+        }
+
+        for (int y = 0; y < rows.length; y++) {
+            String row = rows[y];
+            if (row.length() > App.BOARD_WIDTH) {
+                throw new IllegalArgumentException("Layout row " + y + " is longer than " + App.BOARD_WIDTH + " cells");
+            }
+            for (int x = 0; x < row.length(); x++) {
+                char tileType = row.charAt(x);
+                if ((tileType == 'H' || tileType == 'B') && x + 1 < row.length() && Character.isDigit(row.charAt(x + 1))) {
+                    int type = row.charAt(x + 1) - '0';
+                    if (tileType == 'H') {
+                        count = addEntity(entities, count, HOLE, type, x, y);
+                        codes[x][y] = TileTemplate.OCCUPIED;
+                        codes[x + 1][y] = TileTemplate.COVERED;
+                        codes[x][y + 1] = TileTemplate.COVERED;
+                        codes[x + 1][y + 1] = TileTemplate.COVERED;
+                    } else {
+                        count = addEntity(entities, count, BALL, type, x, y);
+                        codes[x][y] = TileTemplate.FLOOR;
+                        codes[x + 1][y] = TileTemplate.FLOOR;
+                    }
+                    x += 1;
+                    continue;
+                }
+
+                if (tileType == 'X' || (tileType >= '1' && tileType <= '4')) {
+                    count = addEntity(entities, count, WALL, tileType == 'X' ? 0 : tileType - '0', x, y);
+                    codes[x][y] = TileTemplate.OCCUPIED;
+                } else if (tileType == 'S') {
+                    count = addEntity(entities, count, SPAWNER, 0, x, y);
+                    codes[x][y] = TileTemplate.OCCUPIED;
+                } else if (DIRECTIONS.indexOf(tileType) >= 0) {
+                    count = addEntity(entities, count, SPEED_TILE, tileType, x, y);
+                    codes[x][y] = TileTemplate.OCCUPIED;
+                } else {
+                    codes[x][y] = TileTemplate.FLOOR;
+                }
+            }
+        }
+        return new LevelLayout(codes, Arrays.copyOf(entities, count * ENTITY_SIZE));
+    }
+
+    /**
+     * Appends an entity to a table.
+     *
+     * @param entities The table.
+     * @param count    The number of entities already in the table.
+     * @param kind     The kind of the entity.
+     * @param type     The type of the entity.
+     * @param x        The x-coordinate of the entity's cell.
+     * @param y        The y-coordinate of the entity's cell.
+     * @return The number of entities in the table.
+     */
+    private static int addEntity(byte[] entities, int count, byte kind, int type, int x, int y) {
+        int offset = count * ENTITY_SIZE;
+        entities[offset] = kind;
+        entities[offset + 1] = (byte) type;
+        entities[offset + 2] = (byte) x;
+        entities[offset + 3] = (byte) y;
+        return count + 1;
+    }
+
+    /**
+     * Returns the code of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The cell's {@link TileTemplate} code.
+     */
+    public byte getCode(int x, int y) {
+        return codes[x][y];
+    }
+
+    /**
+     * Returns a copy of the cell codes, for a board that changes them while the level is played.
+     *
+     * @return The cell codes, indexed by x and then y.
+     */
+    public byte[][] copyCodes() {
+        byte[][] copy = new byte[codes.length][];
+        for (int x = 0; x < codes.length; x++) {
+            copy[x] = codes[x].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the number of entities in the layout.
+     *
+     * @return The number of entities.
+     */
+    public int getEntityCount() {
+        return entities.length / ENTITY_SIZE;
+    }
+
+    /**
+     * Returns the kind of an entity, such as {@link #WALL}.
+     *
+     * @param index The index of the entity.
+     * @return The entity's kind.
+     */
+    public byte getKind(int index) {
+        return entities[index * ENTITY_SIZE];
+    }
+
+    /**
+     * Returns the type of an entity: the color of a wall, hole or ball, or the direction
+     * character of a speed tile.
+     *
+     * @param index The index of the entity.
+     * @return The entity's type.
+     */
+    public int getType(int index) {
+        return entities[index * ENTITY_SIZE + 1] & 0xFF;
+    }
+
+    /**
+     * Returns the x-coordinate of an entity's cell.
+     *
+     * @param index The index of the entity.
+     * @return The x-coordinate.
+     */
+    public int getX(int index) {
+        return entities[index * ENTITY_SIZE + 2] & 0xFF;
+    }
+
+    /**
+     * Returns the y-coordinate of an entity's cell.
+     *
+     * @param index The index of the entity.
+     * @return The y-coordinate.
+     */
+    public int getY(int index) {
+        return entities[index * ENTITY_SIZE + 3] & 0xFF;
+    }
+
+    /**
+     * Returns the name of the image an entity is drawn with.
+     *
+     * @param index The index of the entity.
+     * @return The name of the image, or {@code null} if the entity has no image, like a hole of
+     *         an unknown color.
+     */
+    public String getImageName(int index) {
+        int type = getType(index);
+        switch (getKind(index)) {
+            case WALL:
+                return "wall" + type;
+            case HOLE:
+                return type <= 4 ? "hole" + type : null;
+            case BALL:
+                return type <= 4 ? "ball" + type : null;
+            case SPAWNER:
+                return "entrypoint";
+            case SPEED_TILE:
+                return "speedTile" + (DIRECTIONS.indexOf(type) + 1);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Writes the layout as it is stored in a level pack: the board's width and height, the cell
+     * codes column by column, the number of entities and the entity table.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the layout cannot be written.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeByte(codes.length);
+        out.writeByte(codes[0].length);
+        for (byte[] column : codes) {
+            out.write(column);
+        }
+        out.writeShort(getEntityCount());
+        out.write(entities);
+    }
+
+    /**
+     * Reads a layout stored by {@link #write(DataOutputStream)}.
+     *
+     * @param buffer The buffer positioned at the layout.
+     * @return The layout.
+     * @throws IllegalStateException If the layout was stored for a board of another size.
+     */
+    static LevelLayout read(ByteBuffer buffer) {
+        int width = buffer.get() & 0xFF;
+        int height = buffer.get() & 0xFF;
+        if (width != App.BOARD_WIDTH || height != App.BOARD_HEIGHT) {
+            throw new IllegalStateException("Layout was compiled for a " + width + "x" + height + " board");
+        }
+        byte[][] codes = new byte[width][height];
+        for (byte[] column : codes) {
+            buffer.get(column);
+        }
+        byte[] entities = new byte[(buffer.getShort() & 0xFFFF) * ENTITY_SIZE];
+        buffer.get(entities);
+        return new LevelLayout(codes, entities);
+    }
+
+    /**
+     * Checks whether another layout has the same cell codes and entities.
+     *
+     * @param other The object to compare with.
+     * @return {@code true} if the layouts are the same, {@code false} otherwise.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LevelLayout)) {
+            return false;
+        }
+        LevelLayout layout = (LevelLayout) other;
+        return Arrays.deepEquals(codes, layout.codes) && Arrays.equals(entities, layout.entities);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.deepHashCode(codes) + Arrays.hashCode(entities);
+    }
+}
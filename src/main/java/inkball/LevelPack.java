@@ -0,0 +1,258 @@
+package inkball;
+
+import processing.data.JSONArray;
+import processing.data.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code LevelPack} class reads levels from a compiled binary pack, built from
+ * {@code config.json} and the layout files by {@link #main(String[])}. The pack is memory-mapped,
+ * and starts with a table of where each level's record begins, so a level is decoded straight
+ * from the mapping when it is loaded, however many levels the pack holds.
+ *
+ * <p>The pack is big-endian. It starts with the magic number, the format version, the number of
+ * levels and the offset of each level's record. Each record holds the time, spawn interval and
+ * score modifiers, the layout file name, the ball types to spawn, and the layout resolved into a
+ * {@link LevelLayout}: the code of every cell and the table of entities. The layout files are only
+ * parsed when the pack is compiled, and the board is built straight from the decoded tables.
+ */
+public class LevelPack {
+
+    /** The first four bytes of every pack, {@code "INKP"}. */
+    static final int MAGIC = 0x494E4B50;
+
+    /** The version of the format written by this class. */
+    static final short VERSION = 2;
+
+    /** The ball colors in order of ball type, so a color is stored as a single byte. */
+    private static final String[] COLORS = {"grey", "orange", "blue", "green", "yellow"};
+
+    /** The pack's contents. */
+    private final ByteBuffer data;
+
+    /** The number of levels in the pack. */
+    private final int size;
+
+    /**
+     * Reads the header of a pack.
+     *
+     * @param data The pack's contents.
+     * @throws IOException If the data is not a pack this class can read.
+     */
+    LevelPack(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.limit() < 10 || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        if (data.getShort(4) != VERSION) {
+            throw new IOException("Unsupported level pack version " + data.getShort(4));
+        }
+        this.size = data.getInt(6);
+    }
+
+    /**
+     * Opens a pack. A pack in the working directory is memory-mapped. A pack only on the
+     * classpath, such as one inside the jar, cannot be mapped and is read into memory instead.
+     *
+     * @param name The file name of the pack.
+     * @return The opened pack.
+     * @throws FileNotFoundException If the pack is in neither place.
+     * @throws IOException If the pack cannot be read or is not a level pack.
+     */
+    public static LevelPack open(String name) throws IOException {
+        Path path = Paths.get(name);
+        if (Files.isRegularFile(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                // The mapping stays valid once the channel is closed
+                return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+        try (InputStream in = ResourceLoader.open(name)) {
+            return new LevelPack(ByteBuffer.wrap(in.readAllBytes()));
+        }
+    }
+
+    /**
+     * Returns the number of levels in the pack.
+     *
+     * @return The number of levels.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes a level's settings.
+     *
+     * @param index The index of the level.
+     * @return The level.
+     */
+    public Level getLevel(int index) {
+        ByteBuffer record = record(index);
+        int time = record.getInt();
+        float spawnInterval = record.getFloat();
+        float increaseModifier = record.getFloat();
+        float decreaseModifier = record.getFloat();
+        String layout = readString(record);
+        int ballCount = record.getShort();
+        List<String> balls = new ArrayList<>(ballCount);
+        for (int i = 0; i < ballCount; i++) {
+            balls.add(COLORS[record.get()]);
+        }
+        return new Level(layout, time, spawnInterval, increaseModifier, decreaseModifier, balls);
+    }
+
+    /**
+     * Decodes a level's layout.
+     *
+     * @param index The index of the level.
+     * @return The layout's cell codes and entities.
+     */
+    public LevelLayout getLayout(int index) {
+        ByteBuffer record = record(index);
+        // Skip the level's settings, its layout name and its balls
+        record.position(record.position() + 16);
+        readString(record);
+        int ballCount = record.getShort();
+        record.position(record.position() + ballCount);
+        return LevelLayout.read(record);
+    }
+
+    /**
+     * Returns a view of the pack positioned at the start of a level's record. Each call has its
+     * own position, so levels can be decoded on several threads at once.
+     *
+     * @param index The index of the level.
+     * @return The view of the pack.
+     */
+    private ByteBuffer record(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Level " + index + " of " + size);
+        }
+        ByteBuffer record = data.duplicate();
+        record.position(data.getInt(10 + index * 4));
+        return record;
+    }
+
+    /**
+     * Reads a string stored as its length followed by its UTF-8 bytes.
+     *
+     * @param buffer The buffer positioned at the string.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compiles levels and their layout files into a pack.
+     *
+     * @param levels The levels to compile, in order.
+     * @param out    The stream to write the pack to.
+     * @throws IOException If a layout file cannot be read, or the pack cannot be written.
+     * @throws IllegalArgumentException If a layout is larger than the board.
+     */
+    public static void write(List<Level> levels, OutputStream out) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        for (Level level : levels) {
+            records.add(encode(level, LevelLayout.parse(ResourceLoader.loadLines(level.layout))));
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(records.size());
+        int offset = 10 + records.size() * 4;
+        for (byte[] record : records) {
+            data.writeInt(offset);
+            offset += record.length;
+        }
+        for (byte[] record : records) {
+            data.write(record);
+        }
+        data.flush();
+    }
+
+    /**
+     * Encodes one level's record.
+     *
+     * @param level  The level's settings.
+     * @param layout The level's resolved layout.
+     * @return The encoded record.
+     * @throws IOException If the record cannot be written.
+     */
+    private static byte[] encode(Level level, LevelLayout layout) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(bytes);
+        record.writeInt(level.time);
+        record.writeFloat(level.spawnInterval);
+        record.writeFloat(level.scoreIncreaseModifier);
+        record.writeFloat(level.scoreDecreaseModifier);
+        byte[] layoutName = level.layout.getBytes(StandardCharsets.UTF_8);
+        record.writeShort(layoutName.length);
+        record.write(layoutName);
+        record.writeShort(level.balls.size());
+        for (String color : level.balls) {
+            record.writeByte(colorCode(color));
+        }
+        layout.write(record);
+        record.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the ball type stored for a color. Unknown colors are stored as grey, the same way
+     * the game treats them.
+     *
+     * @param color The ball color.
+     * @return The ball type.
+     */
+    private static int colorCode(String color) {
+        for (int i = 0; i < COLORS.length; i++) {
+            if (COLORS[i].equalsIgnoreCase(color)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compiles the levels of a config file into a pack.
+     * Usage: {@code LevelPack [config.json] [levels.pack]}
+     *
+     * @param args The config file to read and the pack file to write.
+     * @throws IOException If the config or a layout cannot be read, or the pack cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        String configName = args.length > 0 ? args[0] : "config.json";
+        Path packPath = Paths.get(args.length > 1 ? args[1] : "levels.pack");
+
+        JSONArray levelArray = ResourceLoader.loadJSON(configName).getJSONArray("levels");
+        List<Level> levels = new ArrayList<>();
+        for (int i = 0; i < levelArray.size(); i++) {
+            JSONObject levelData = levelArray.getJSONObject(i);
+            levels.add(new Level(levelData));
+        }
+        try (OutputStream out = Files.newOutputStream(packPath)) {
+            write(levels, out);
+        }
+        System.out.println("Wrote " + levels.size() + " levels to " + packPath);
+    }
+}
@@ -0,0 +1,225 @@
+package inkball;
+
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code LineIndex} class is a board-level spatial index of the segments of every
+ * {@code PlayerLine}. The board is split into buckets of one grid cell each, and every
+ * segment is stored in the buckets its reach overlaps, so ball collisions and erase
+ * clicks only have to look at the segments near the ball's step or the click.
+ * The index is built incrementally as points are appended to a line.
+ */
+public class LineIndex {
+
+    /** The number of bucket columns, one per grid cell. */
+    private final int columns;
+
+    /** The number of bucket rows, one per grid cell. */
+    private final int rows;
+
+    /** The buckets of indexed entries, stored in row-major order. */
+    private final List<List<Entry>> buckets;
+
+    /** The buckets touched by each indexed line, used to remove a line without scanning the board. */
+    private final Map<PlayerLine, Set<Integer>> cellsByLine;
+
+    /**
+     * A single entry in the index. Entry {@code i} covers point {@code i} of the line and,
+     * for {@code i > 0}, the segment from point {@code i - 1} to point {@code i}.
+     */
+    private static class Entry {
+        final PlayerLine line;
+        final int index;
+
+        Entry(PlayerLine line, int index) {
+            this.line = line;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Constructs an empty {@code LineIndex} covering a board of the given size in cells.
+     *
+     * @param columns The number of grid columns on the board.
+     * @param rows    The number of grid rows on the board.
+     */
+    public LineIndex(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.buckets = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.cellsByLine = new IdentityHashMap<>();
+    }
+
+    /**
+     * Indexes any points of the line that have been added since it was last indexed.
+     * Calling this after every {@code addPoint} keeps the cost of indexing proportional
+     * to the number of new points.
+     *
+     * @param line The line to index.
+     */
+    public void update(PlayerLine line) {
+        int pointCount = line.getPoints().size();
+        while (line.indexedPoints < pointCount) {
+            insert(line, line.indexedPoints);
+            line.indexedPoints++;
+        }
+    }
+
+    /**
+     * Removes every entry of the line from the index.
+     *
+     * @param line The line to remove.
+     */
+    public void remove(PlayerLine line) {
+        Set<Integer> cells = cellsByLine.remove(line);
+        if (cells != null) {
+            for (int cell : cells) {
+                buckets.get(cell).removeIf(entry -> entry.line == line);
+            }
+        }
+        line.indexedPoints = 0;
+    }
+
+    /**
+     * Removes every line from the index.
+     */
+    public void clear() {
+        for (PlayerLine line : cellsByLine.keySet()) {
+            line.indexedPoints = 0;
+        }
+        for (int cell = 0; cell < buckets.size(); cell++) {
+            buckets.get(cell).clear();
+        }
+        cellsByLine.clear();
+    }
+
+    /**
+     * Sweeps the ball along its next step against the indexed segments in the buckets the step
+     * passes through, and reflects the ball off the segment it reaches first.
+     *
+     * @param ball    The ball to check.
+     * @param exclude A line whose segments should be ignored, such as the line still being drawn.
+     * @return {@code true} if the ball collided with a line, {@code false} otherwise.
+     */
+    public boolean checkCollision(Ball ball, PlayerLine exclude) {
+        float startX = ball.getX();
+        float startY = ball.getY();
+        float endX = startX + ball.getVx();
+        float endY = startY + ball.getVy();
+        int minColumn = column(Math.min(startX, endX));
+        int maxColumn = column(Math.max(startX, endX));
+        int minRow = row(Math.min(startY, endY));
+        int maxRow = row(Math.max(startY, endY));
+
+        Entry first = null;
+        float earliest = Collidable.NO_IMPACT;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                List<Entry> bucket = buckets.get(row * columns + column);
+                for (int i = 0; i < bucket.size(); i++) {
+                    Entry entry = bucket.get(i);
+                    if (entry.index > 0 && entry.line != exclude && !entry.line.hasCollided()) {
+                        float t = entry.line.segmentImpactTime(ball, entry.index - 1);
+                        if (t < earliest) {
+                            earliest = t;
+                            first = entry;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (first == null) {
+            return false;
+        }
+        first.line.collide(ball, first.index - 1);
+        return true;
+    }
+
+    /**
+     * Finds the first indexed line with a point close enough to be erased by a click at the given position.
+     *
+     * @param x       The x-coordinate of the click.
+     * @param y       The y-coordinate of the click.
+     * @param exclude A line that should not be returned, such as the line still being drawn.
+     * @return The line under the click, or {@code null} if there is none.
+     */
+    public PlayerLine findLineAt(float x, float y, PlayerLine exclude) {
+        List<Entry> bucket = buckets.get(cellAt(x, y));
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry entry = bucket.get(i);
+            if (entry.line != exclude && entry.line.isPointNear(entry.index, x, y)) {
+                return entry.line;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inserts entry {@code index} of the line into every bucket overlapped by its reach.
+     *
+     * @param line  The line the entry belongs to.
+     * @param index The index of the point the entry ends at.
+     */
+    private void insert(PlayerLine line, int index) {
+        PVector start = line.getPoints().get(Math.max(0, index - 1));
+        PVector end = line.getPoints().get(index);
+        float reach = PlayerLine.segmentReach(start.x, start.y, end.x, end.y);
+
+        int minColumn = column(Math.min(start.x, end.x) - reach);
+        int maxColumn = column(Math.max(start.x, end.x) + reach);
+        int minRow = row(Math.min(start.y, end.y) - reach);
+        int maxRow = row(Math.max(start.y, end.y) + reach);
+
+        Set<Integer> cells = cellsByLine.computeIfAbsent(line, key -> new HashSet<>());
+        Entry entry = new Entry(line, index);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * columns + column;
+                buckets.get(cell).add(entry);
+                cells.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket containing the given position. Positions off the board map to the nearest edge bucket.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return The index of the bucket.
+     */
+    private int cellAt(float x, float y) {
+        return row(y) * columns + column(x);
+    }
+
+    /**
+     * Returns the bucket column containing the given x-coordinate, clamped to the board.
+     *
+     * @param x The x-coordinate.
+     * @return The bucket column.
+     */
+    private int column(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / App.CELLSIZE)));
+    }
+
+    /**
+     * Returns the bucket row containing the given y-coordinate, clamped to the board.
+     *
+     * @param y The y-coordinate.
+     * @return The bucket row.
+     */
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / App.CELLSIZE)));
+    }
+}
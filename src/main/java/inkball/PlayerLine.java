@@ -1,6 +1,7 @@
 package inkball;
 
 import processing.core.PApplet;
+import processing.core.PGraphics;
 import processing.core.PVector;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +22,16 @@ public class PlayerLine implements Drawable, Collidable {
     /** Indicates whether the line has already collided with a ball. */
     private boolean hasCollided;
 
+    /** The axis-aligned bounding box of all points in the line. */
+    private float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+    private float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
+    /** The length of the longest segment, used to inflate the bounding box for collision checks. */
+    private float maxSegmentLength;
+
+    /** The number of points already added to the board's {@code LineIndex}. */
+    int indexedPoints;
+
     /**
      * Constructs a new {@code PlayerLine} object.
      * Initializes an empty list of points and sets {@code hasCollided} to false.
@@ -37,7 +48,15 @@ public class PlayerLine implements Drawable, Collidable {
      * @param y The y-coordinate of the point to add.
      */
     public void addPoint(float x, float y) {
+        if (!points.isEmpty()) {
+            PVector last = points.get(points.size() - 1);
+            maxSegmentLength = Math.max(maxSegmentLength, PApplet.dist(last.x, last.y, x, y));
+        }
         points.add(new PVector(x, y));
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
     }
 
     /**
@@ -60,6 +79,76 @@ public class PlayerLine implements Drawable, Collidable {
         }
     }
 
+    /**
+     * Draws the whole player line into an offscreen layer, such as the board's layer of finished lines.
+     * The line will only be drawn if it has not collided with a ball.
+     *
+     * @param target The layer to draw the line into, between its {@code beginDraw()} and {@code endDraw()}.
+     */
+    public void drawInto(PGraphics target) {
+        if (!hasCollided) {
+            target.stroke(0);
+            target.strokeWeight(THICKNESS);
+            target.noFill();
+            target.beginShape();
+            for (PVector p : points) {
+                target.vertex(p.x, p.y);
+            }
+            target.endShape();
+        }
+    }
+
+    /**
+     * Draws only the segments of the player line that end at point {@code from} or later into an
+     * offscreen layer. Used to extend a line that is still being drawn without redrawing all of it.
+     *
+     * @param target The layer to draw the segments into, between its {@code beginDraw()} and {@code endDraw()}.
+     * @param from   The index of the first point whose incoming segment should be drawn.
+     */
+    public void drawSegments(PGraphics target, int from) {
+        if (hasCollided) {
+            return;
+        }
+        target.stroke(0);
+        target.strokeWeight(THICKNESS);
+        for (int i = Math.max(1, from); i < points.size(); i++) {
+            PVector start = points.get(i - 1);
+            PVector end = points.get(i);
+            target.line(start.x, start.y, end.x, end.y);
+        }
+    }
+
+    /**
+     * Marks the area covered by the segments that end at point {@code from} or later as dirty,
+     * including the width of the stroke. Passing 0 marks the whole line.
+     *
+     * @param regions The dirty regions to add the area to.
+     * @param from    The index of the first point whose incoming segment should be covered.
+     */
+    public void markDirty(DirtyRegions regions, int from) {
+        if (points.isEmpty()) {
+            return;
+        }
+        float left = Float.MAX_VALUE, top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+        if (from <= 0) {
+            left = minX;
+            top = minY;
+            right = maxX;
+            bottom = maxY;
+        } else {
+            for (int i = Math.max(0, from - 1); i < points.size(); i++) {
+                PVector p = points.get(i);
+                left = Math.min(left, p.x);
+                top = Math.min(top, p.y);
+                right = Math.max(right, p.x);
+                bottom = Math.max(bottom, p.y);
+            }
+        }
+        float pad = THICKNESS / 2 + 1;
+        regions.add(left - pad, top - pad, right + pad, bottom + pad);
+    }
+
     /**
      * Updates the player line. Currently, this method does not perform any operations
      * because the line remains static after being drawn.
@@ -71,64 +160,166 @@ public class PlayerLine implements Drawable, Collidable {
 
     /**
      * Checks if the player line has collided with a ball. A collision is detected
-     * if the ball's next position overlaps with any part of the line.
+     * if the ball's path to its next position passes through any part of the line.
+     * The ball is reflected off the first segment it would reach.
      *
      * @param ball The ball to check for collision with the player line.
      * @return {@code true} if a collision is detected, {@code false} otherwise.
      */
     @Override
     public boolean checkCollision(Ball ball) {
-        if (hasCollided || points.size() < 2) return false;
-        PVector ballPos = new PVector(ball.getX(), ball.getY());
-        PVector ballVelocity = new PVector(ball.getVx(), ball.getVy());
-        PVector nextPos = PVector.add(ballPos, ballVelocity);
+        int segment = firstSegmentHit(ball);
+        if (segment < 0) {
+            return false;
+        }
+        collide(ball, segment);
+        return true;
+    }
+
+    /**
+     * Sweeps the ball along its next step against every segment of the line.
+     *
+     * @param ball The ball to sweep against the player line.
+     * @return The fraction of the step at which the ball first reaches the line, or {@link #NO_IMPACT}.
+     */
+    @Override
+    public float impactTime(Ball ball) {
+        int segment = firstSegmentHit(ball);
+        return segment < 0 ? NO_IMPACT : segmentImpactTime(ball, segment);
+    }
+
+    /**
+     * Finds the segment the ball reaches first along its next step.
+     *
+     * @param ball The ball to sweep against the player line.
+     * @return The index of the first segment hit, or -1 if the ball does not reach the line.
+     */
+    private int firstSegmentHit(Ball ball) {
+        if (hasCollided || points.size() < 2) return -1;
+
+        // Reject balls that cannot reach any segment before walking the points
+        float reach = ellipseReach(maxSegmentLength, ball.getRadius());
+        float startX = ball.getX();
+        float startY = ball.getY();
+        float endX = startX + ball.getVx();
+        float endY = startY + ball.getVy();
+        if (Math.max(startX, endX) < minX - reach || Math.min(startX, endX) > maxX + reach
+                || Math.max(startY, endY) < minY - reach || Math.min(startY, endY) > maxY + reach) {
+            return -1;
+        }
+
+        int firstSegment = -1;
+        float earliest = NO_IMPACT;
         for (int i = 0; i < points.size() - 1; i++) {
-            PVector p1 = points.get(i);
-            PVector p2 = points.get(i + 1);
-            float d1 = PVector.dist(p1, nextPos);
-            float d2 = PVector.dist(p2, nextPos);
-            float lineLength = PVector.dist(p1, p2);
-            if (d1 + d2 < lineLength + ball.getRadius()) {
-                // Collision detected, calculate new trajectory
-                PVector normal = getNormal(p1, p2, ballPos);
-                PVector newVelocity = reflect(ballVelocity, normal);
-                ball.setVx(newVelocity.x);
-                ball.setVy(newVelocity.y);
-                hasCollided = true;
-                return true;
+            float t = segmentImpactTime(ball, i);
+            if (t < earliest) {
+                earliest = t;
+                firstSegment = i;
             }
         }
-        return false;
+        return firstSegment;
     }
 
     /**
-     * Calculates the normal vector of the line segment defined by two points relative to the ball's position.
+     * Sweeps the ball along its next step against a single segment of the line. The segment's
+     * collision area is the ellipse of points whose distances to the two ends add up to less
+     * than the segment length plus the ball's radius, and the ball's path is solved against
+     * that ellipse so a fast ball cannot jump over it.
      *
-     * @param p1 The first point of the line segment.
-     * @param p2 The second point of the line segment.
-     * @param ballPos The current position of the ball.
-     * @return The normal vector to the line segment closest to the ball.
+     * @param ball  The ball to sweep against the segment.
+     * @param index The index of the segment, which runs from point {@code index} to point {@code index + 1}.
+     * @return The fraction of the step at which the ball first enters the segment's collision area,
+     *         0 if it is already inside it, or {@link #NO_IMPACT} if it does not reach it.
      */
-    private PVector getNormal(PVector p1, PVector p2, PVector ballPos) {
-        PVector lineVec = PVector.sub(p2, p1);
-        PVector normal1 = new PVector(-lineVec.y, lineVec.x).normalize();
-        PVector normal2 = PVector.mult(normal1, -1);
-        PVector midpoint = PVector.add(p1, p2).div(2);
-        PVector point1 = PVector.add(midpoint, normal1);
-        PVector point2 = PVector.add(midpoint, normal2);
-        return PVector.dist(point1, ballPos) < PVector.dist(point2, ballPos) ? normal1 : normal2;
+    float segmentImpactTime(Ball ball, int index) {
+        PVector p1 = points.get(index);
+        PVector p2 = points.get(index + 1);
+        float length = PVector.dist(p1, p2);
+        float semiMajor = (length + ball.getRadius()) / 2;
+        float semiMinor = ellipseReach(length, ball.getRadius());
+
+        // Axes of the ellipse, along and across the segment
+        float axisX = 1;
+        float axisY = 0;
+        if (length > 0) {
+            axisX = (p2.x - p1.x) / length;
+            axisY = (p2.y - p1.y) / length;
+        }
+
+        // Ball's start position and step in the ellipse's frame, scaled so the ellipse becomes a unit circle
+        float offsetX = ball.getX() - (p1.x + p2.x) / 2;
+        float offsetY = ball.getY() - (p1.y + p2.y) / 2;
+        float px = (offsetX * axisX + offsetY * axisY) / semiMajor;
+        float py = (offsetY * axisX - offsetX * axisY) / semiMinor;
+        float dx = (ball.getVx() * axisX + ball.getVy() * axisY) / semiMajor;
+        float dy = (ball.getVy() * axisX - ball.getVx() * axisY) / semiMinor;
+
+        float c = px * px + py * py - 1;
+        if (c < 0) {
+            return 0;
+        }
+        float a = dx * dx + dy * dy;
+        if (a == 0) {
+            return NO_IMPACT;
+        }
+        float b = 2 * (px * dx + py * dy);
+        float discriminant = b * b - 4 * a * c;
+        if (discriminant < 0) {
+            return NO_IMPACT;
+        }
+        float t = (-b - (float) Math.sqrt(discriminant)) / (2 * a);
+        return t >= 0 && t <= 1 ? t : NO_IMPACT;
     }
 
     /**
-     * Reflects the ball's velocity vector based on the normal vector of the surface it collides with.
+     * Reflects the ball off a segment of the line and marks the line as collided.
+     * The reflection is the same for either side's normal, so no side has to be picked.
      *
-     * @param v The original velocity vector of the ball.
-     * @param n The normal vector of the surface the ball collides with.
-     * @return The new velocity vector after reflection.
+     * @param ball  The ball that hit the segment.
+     * @param index The index of the segment, which runs from point {@code index} to point {@code index + 1}.
      */
-    private PVector reflect(PVector v, PVector n) {
-        float dot = PVector.dot(v, n);
-        return PVector.sub(v, PVector.mult(n, 2 * dot));
+    void collide(Ball ball, int index) {
+        PVector p1 = points.get(index);
+        PVector p2 = points.get(index + 1);
+        float lineX = p2.x - p1.x;
+        float lineY = p2.y - p1.y;
+        float length = (float) Math.sqrt(lineX * lineX + lineY * lineY);
+        if (length > 0) {
+            float normalX = -lineY / length;
+            float normalY = lineX / length;
+            float dot = ball.getVx() * normalX + ball.getVy() * normalY;
+            ball.setVx(ball.getVx() - 2 * dot * normalX);
+            ball.setVy(ball.getVy() - 2 * dot * normalY);
+        }
+        hasCollided = true;
+    }
+
+    /**
+     * Returns how far outside a segment's bounding box a point can be while still being
+     * close enough to collide with, or erase, that segment. Balls never grow beyond
+     * their original radius, so the reach is computed for that radius.
+     *
+     * @param x1 The x-coordinate of the start of the segment.
+     * @param y1 The y-coordinate of the start of the segment.
+     * @param x2 The x-coordinate of the end of the segment.
+     * @param y2 The y-coordinate of the end of the segment.
+     * @return The distance to inflate the segment's bounding box by.
+     */
+    static float segmentReach(float x1, float y1, float x2, float y2) {
+        float length = PApplet.dist(x1, y1, x2, y2);
+        return Math.max(THICKNESS / 2, ellipseReach(length, Ball.ORIGINAL_RADIUS));
+    }
+
+    /**
+     * Returns the semi-minor axis of the collision ellipse {@code d1 + d2 < length + radius},
+     * which is the furthest that ellipse extends from its segment.
+     *
+     * @param length The length of the segment.
+     * @param radius The radius of the ball.
+     * @return The furthest distance from the segment that still counts as a collision.
+     */
+    private static float ellipseReach(float length, float radius) {
+        return (float) Math.sqrt(2 * length * radius + radius * radius) / 2;
     }
 
     /**
@@ -139,14 +330,30 @@ public class PlayerLine implements Drawable, Collidable {
      * @return {@code true} if the point is within the bounds of the line, {@code false} otherwise.
      */
     public boolean containsPoint(float x, float y) {
-        for (PVector p : points) {
-            if (PVector.dist(p, new PVector(x, y)) < THICKNESS / 2) {
+        if (x < minX - THICKNESS / 2 || x > maxX + THICKNESS / 2 || y < minY - THICKNESS / 2 || y > maxY + THICKNESS / 2) {
+            return false;
+        }
+        for (int i = 0; i < points.size(); i++) {
+            if (isPointNear(i, x, y)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Checks if a position is within the bounds of a single point of the line.
+     *
+     * @param index The index of the point to check.
+     * @param x     The x-coordinate of the position.
+     * @param y     The y-coordinate of the position.
+     * @return {@code true} if the position is within half the line thickness of the point, {@code false} otherwise.
+     */
+    boolean isPointNear(int index, float x, float y) {
+        PVector p = points.get(index);
+        return PApplet.dist(p.x, p.y, x, y) < THICKNESS / 2;
+    }
+
     /**
      * Returns whether the player line has collided with a ball.
      *
@@ -0,0 +1,19 @@
+package inkball;
+
+/**
+ * The {@code RenderSink} interface receives each frame once the simulation has been advanced.
+ * The window renders the game state, while a headless run uses {@link #NONE} so frames
+ * cost nothing to present and no display is needed.
+ */
+public interface RenderSink {
+
+    /** A sink that draws nothing, used when the game runs without a window. */
+    RenderSink NONE = app -> { };
+
+    /**
+     * Presents the current state of the game.
+     *
+     * @param app The game whose state should be presented.
+     */
+    void frame(App app);
+}
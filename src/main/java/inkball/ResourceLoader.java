@@ -0,0 +1,110 @@
+package inkball;
+
+import processing.core.PConstants;
+import processing.core.PImage;
+import processing.data.JSONObject;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The {@code ResourceLoader} class reads the game's images, level layouts and config as streams,
+ * so they load the same way from the build directory and from inside the packaged jar.
+ * Images are always read from the classpath. Text files are read from the working directory
+ * when present, so the config and layouts can be edited without rebuilding, and otherwise from
+ * the copies packaged on the classpath.
+ */
+public final class ResourceLoader {
+
+    /** The classpath folder holding the game's images. */
+    static final String IMAGE_FOLDER = "/inkball/";
+
+    /**
+     * Prevents instantiation, as the loader only has static methods.
+     */
+    private ResourceLoader() {
+    }
+
+    /**
+     * Opens a text file such as {@code config.json} or {@code level1.txt}, preferring the copy in
+     * the working directory over the one on the classpath.
+     *
+     * @param name The name of the file.
+     * @return A stream of the file's contents, which the caller must close.
+     * @throws FileNotFoundException If the file is in neither place.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static InputStream open(String name) throws IOException {
+        Path local = Paths.get(name);
+        if (Files.isRegularFile(local)) {
+            return Files.newInputStream(local);
+        }
+        InputStream packaged = ResourceLoader.class.getResourceAsStream("/" + name);
+        if (packaged == null) {
+            throw new FileNotFoundException(name + " is not in the working directory or on the classpath");
+        }
+        return packaged;
+    }
+
+    /**
+     * Reads every line of a text file.
+     *
+     * @param name The name of the file.
+     * @return The lines of the file, without line terminators.
+     * @throws IOException If the file cannot be found or read.
+     */
+    public static String[] loadLines(String name) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(name), StandardCharsets.UTF_8))) {
+            return reader.lines().toArray(String[]::new);
+        }
+    }
+
+    /**
+     * Reads a JSON object from a file.
+     *
+     * @param name The name of the file.
+     * @return The parsed JSON object.
+     * @throws IOException If the file cannot be found or read.
+     */
+    public static JSONObject loadJSON(String name) throws IOException {
+        try (Reader reader = new InputStreamReader(open(name), StandardCharsets.UTF_8)) {
+            return new JSONObject(reader);
+        }
+    }
+
+    /**
+     * Decodes an image of the game straight from its classpath stream.
+     *
+     * @param name The name of the image file without its extension, such as {@code "speedTile1"}.
+     * @return The decoded image, with an alpha channel if the file has one.
+     * @throws FileNotFoundException If the image is not on the classpath.
+     * @throws IOException If the image cannot be read or decoded.
+     */
+    public static PImage loadImage(String name) throws IOException {
+        String path = IMAGE_FOLDER + name + ".png";
+        try (InputStream in = ResourceLoader.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new FileNotFoundException(path + " is not on the classpath");
+            }
+            BufferedImage decoded = ImageIO.read(in);
+            if (decoded == null) {
+                throw new IOException(path + " is not a readable image");
+            }
+            PImage image = new PImage(decoded);
+            if (decoded.getColorModel().hasAlpha()) {
+                image.format = PConstants.ARGB;
+            }
+            return image;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package inkball;
 
 import processing.core.PApplet;
-import processing.core.PImage;
 
 /**
  * The {@code Spawner} class represents a spawner tile in the Inkball game.
@@ -17,16 +16,16 @@ public class Spawner implements Drawable {
     private int y;
 
     /** The image representing the spawner tile. */
-    private PImage image;
+    private Sprite image;
 
     /**
      * Constructs a new {@code Spawner} object with a specific grid position and an image.
      *
      * @param x The x-coordinate of the spawner's position on the grid.
      * @param y The y-coordinate of the spawner's position on the grid.
-     * @param image The {@code PImage} object representing the spawner.
+     * @param image The sprite representing the spawner.
      */
-    public Spawner(int x, int y, PImage image) {
+    public Spawner(int x, int y, Sprite image) {
         this.x = x;
         this.y = y;
         this.image = image;
@@ -39,7 +38,9 @@ public class Spawner implements Drawable {
      */
     @Override
     public void draw(PApplet app) {
-        app.image(image, x * App.CELLSIZE, y * App.CELLSIZE);
+        if (image != null) {
+            image.draw(app, x * App.CELLSIZE, y * App.CELLSIZE);
+        }
     }
 
     /**
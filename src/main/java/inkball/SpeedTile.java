@@ -1,7 +1,6 @@
 package inkball;
 
 import processing.core.PApplet;
-import processing.core.PImage;
 
 /**
  * The {@code SpeedTile} class represents a special tile in the Inkball game
@@ -18,7 +17,7 @@ public class SpeedTile implements Drawable {
     private int y;
 
     /** The image representing the speed tile. */
-    private PImage image;
+    private Sprite image;
 
     /** The direction in which the speed tile accelerates the ball ('^', 'v', '>', '<'). */
     private char direction;
@@ -28,10 +27,10 @@ public class SpeedTile implements Drawable {
      *
      * @param x         The x-coordinate of the speed tile's position on the grid.
      * @param y         The y-coordinate of the speed tile's position on the grid.
-     * @param image     The {@code PImage} object representing the speed tile.
+     * @param image     The sprite representing the speed tile.
      * @param direction The direction the tile will boost the ball, one of '^', 'v', '>', '<'.
      */
-    public SpeedTile(int x, int y, PImage image, char direction) {
+    public SpeedTile(int x, int y, Sprite image, char direction) {
         this.x = x;
         this.y = y;
         this.image = image;
@@ -45,7 +44,9 @@ public class SpeedTile implements Drawable {
      */
     @Override
     public void draw(PApplet app) {
-        app.image(image, x * App.CELLSIZE, y * App.CELLSIZE);
+        if (image != null) {
+            image.draw(app, x * App.CELLSIZE, y * App.CELLSIZE);
+        }
     }
 
     /**
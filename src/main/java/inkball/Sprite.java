@@ -0,0 +1,128 @@
+package inkball;
+
+import processing.core.PApplet;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**
+ * The {@code Sprite} class is a rectangular region of an image, such as one sprite on the sprite
+ * sheet. Sprites are drawn straight from their region of the backing image, so every sprite on
+ * the sheet shares the sheet's single texture instead of being copied into an image of its own.
+ */
+public final class Sprite {
+
+    /** The image the sprite is drawn from. */
+    private final PImage image;
+
+    /** The x-coordinate of the sprite's region on the image. */
+    private final int u;
+
+    /** The y-coordinate of the sprite's region on the image. */
+    private final int v;
+
+    /** The width of the sprite in pixels. */
+    private final int width;
+
+    /** The height of the sprite in pixels. */
+    private final int height;
+
+    /**
+     * Constructs a sprite from a region of an image.
+     *
+     * @param image  The image the sprite is drawn from.
+     * @param u      The x-coordinate of the region on the image.
+     * @param v      The y-coordinate of the region on the image.
+     * @param width  The width of the region.
+     * @param height The height of the region.
+     */
+    public Sprite(PImage image, int u, int v, int width, int height) {
+        this.image = image;
+        this.u = u;
+        this.v = v;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Constructs a sprite covering the whole of an image, for images that are not on the sheet.
+     *
+     * @param image The image.
+     */
+    public Sprite(PImage image) {
+        this(image, 0, 0, image.width, image.height);
+    }
+
+    /**
+     * Draws the sprite at its own size.
+     *
+     * @param app The {@code PApplet} object used to draw the sprite.
+     * @param x   The x-coordinate of the sprite's top-left corner.
+     * @param y   The y-coordinate of the sprite's top-left corner.
+     */
+    public void draw(PApplet app, float x, float y) {
+        draw(app, x, y, width, height);
+    }
+
+    /**
+     * Draws the sprite stretched to the given size.
+     *
+     * @param app The {@code PApplet} object used to draw the sprite.
+     * @param x   The x-coordinate of the sprite's top-left corner.
+     * @param y   The y-coordinate of the sprite's top-left corner.
+     * @param w   The width to draw the sprite at.
+     * @param h   The height to draw the sprite at.
+     */
+    public void draw(PApplet app, float x, float y, float w, float h) {
+        app.image(image, x, y, w, h, u, v, u + width, v + height);
+    }
+
+    /**
+     * Draws the sprite stretched to the given size into an off-screen buffer.
+     *
+     * @param target The buffer to draw into.
+     * @param x      The x-coordinate of the sprite's top-left corner.
+     * @param y      The y-coordinate of the sprite's top-left corner.
+     * @param w      The width to draw the sprite at.
+     * @param h      The height to draw the sprite at.
+     */
+    public void draw(PGraphics target, float x, float y, float w, float h) {
+        target.image(image, x, y, w, h, u, v, u + width, v + height);
+    }
+
+    /**
+     * Copies the sprite's pixels into an image of its own, for code that has to change them,
+     * such as scaling.
+     *
+     * @return A new image holding a copy of the sprite.
+     */
+    public PImage copyImage() {
+        return image.get(u, v, width, height);
+    }
+
+    /**
+     * Returns the image the sprite is drawn from.
+     *
+     * @return The backing image.
+     */
+    public PImage getImage() {
+        return image;
+    }
+
+    /**
+     * Returns the width of the sprite.
+     *
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the sprite.
+     *
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,106 @@
+package inkball;
+
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code SpriteAtlas} class finds the game's sprites on {@code inkball_spritesheet.png}, so
+ * the board's images are decoded from a single file and drawn from a single image. Each sprite
+ * is a region of the sheet rather than a copy of it, so every sprite shares the sheet's texture.
+ * The sheet marks the transparent corners of the balls with a magenta colour key, which is
+ * made transparent when the atlas is built.
+ */
+public class SpriteAtlas {
+
+    /** The file name of the sprite sheet, without its extension. */
+    public static final String SHEET_NAME = "inkball_spritesheet";
+
+    /** The colour the sprite sheet uses for pixels that should be transparent. */
+    static final int COLOUR_KEY = 0xFFFF00FF;
+
+    /** The position and size of each sprite on the sheet, as {x, y, width, height}. */
+    private static final Map<String, int[]> REGIONS = new LinkedHashMap<>();
+
+    static {
+        REGIONS.put("tile", new int[]{1, 1, App.CELLSIZE, App.CELLSIZE});
+        REGIONS.put("entrypoint", new int[]{1, 34, App.CELLSIZE, App.CELLSIZE});
+        for (int i = 0; i <= 4; i++) {
+            REGIONS.put("wall" + i, new int[]{99, 1 + i * 33, App.CELLSIZE, App.CELLSIZE});
+            REGIONS.put("hole" + i, new int[]{34, 1 + i * 65, App.CELLSIZE * 2, App.CELLSIZE * 2});
+            REGIONS.put("ball" + i, new int[]{1, 157 + i * 24, 24, 24});
+        }
+    }
+
+    /** The sprite sheet the sprites are drawn from. */
+    private final PImage sheet;
+
+    /** The sprites on the sheet, by name. */
+    private final Map<String, Sprite> sprites = new HashMap<>();
+
+    /**
+     * Builds the atlas from a loaded sprite sheet. The colour key is made transparent, and every
+     * sprite is a region of the sheet, so the sheet is kept and drawn from directly.
+     *
+     * @param sheet The loaded sprite sheet image.
+     */
+    public SpriteAtlas(PImage sheet) {
+        this.sheet = sheet;
+        sheet.format = PConstants.ARGB;
+        sheet.loadPixels();
+        for (int i = 0; i < sheet.pixels.length; i++) {
+            if (sheet.pixels[i] == COLOUR_KEY) {
+                sheet.pixels[i] = 0;
+            }
+        }
+        sheet.updatePixels();
+
+        for (Map.Entry<String, int[]> region : REGIONS.entrySet()) {
+            int[] r = region.getValue();
+            sprites.put(region.getKey(), new Sprite(sheet, r[0], r[1], r[2], r[3]));
+        }
+    }
+
+    /**
+     * Returns the sprite with the given name, such as {@code "wall2"}, {@code "hole0"} or {@code "entrypoint"}.
+     *
+     * @param name The name of the sprite.
+     * @return The sprite, or {@code null} if the sheet has no sprite with that name.
+     */
+    public Sprite get(String name) {
+        return sprites.get(name);
+    }
+
+    /**
+     * Returns the sprite sheet the sprites are drawn from.
+     *
+     * @return The sheet, with its colour key made transparent.
+     */
+    public PImage getSheet() {
+        return sheet;
+    }
+
+    /**
+     * Returns the names of every sprite on the sheet.
+     *
+     * @return The sprite names.
+     */
+    public static Set<String> spriteNames() {
+        return Collections.unmodifiableSet(REGIONS.keySet());
+    }
+
+    /**
+     * Checks whether the sheet has a sprite with the given name.
+     *
+     * @param name The name of the sprite.
+     * @return {@code true} if the atlas can provide the sprite, {@code false} otherwise.
+     */
+    public static boolean hasSprite(String name) {
+        return REGIONS.containsKey(name);
+    }
+}
@@ -0,0 +1,92 @@
+package inkball;
+
+import processing.core.PApplet;
+
+/**
+ * The {@code TileTemplate} class is the shared, immutable description of one kind of board cell,
+ * such as plain floor. The board stores a one-byte code per cell instead of a {@link Tile} object,
+ * and the code picks the template used to draw the cell, so board memory grows with the number of
+ * distinct kinds of cell rather than with the number of cells.
+ */
+public final class TileTemplate {
+
+    /** The code of a cell outside the level's layout. */
+    public static final byte NONE = 0;
+
+    /** The code of a plain floor cell. */
+    public static final byte FLOOR = 1;
+
+    /** The code of a floor cell hidden under a hole. */
+    public static final byte COVERED = 2;
+
+    /** The code of a floor cell under an entity, such as a wall or spawner, that draws itself. */
+    public static final byte OCCUPIED = 3;
+
+    /** The code of a cell turned into a wall by the win animation. */
+    public static final byte WIN_WALL = 4;
+
+    /** The number of cell codes. */
+    public static final int CODES = 5;
+
+    /** The name of the kind of cell, for debugging. */
+    private final String kind;
+
+    /** The sprite the cell is drawn with, or {@code null} if images are not loaded. */
+    private final Sprite image;
+
+    /** Whether the board draws the cell itself, rather than leaving it to an entity or a hole. */
+    private final boolean drawnWithBoard;
+
+    /**
+     * Constructs a template.
+     *
+     * @param kind           The name of the kind of cell.
+     * @param image          The sprite the cell is drawn with.
+     * @param drawnWithBoard Whether the board draws the cell itself.
+     */
+    public TileTemplate(String kind, Sprite image, boolean drawnWithBoard) {
+        this.kind = kind;
+        this.image = image;
+        this.drawnWithBoard = drawnWithBoard;
+    }
+
+    /**
+     * Draws a cell with this template.
+     *
+     * @param app The {@code PApplet} object used to draw the cell.
+     * @param x   The x-coordinate of the cell on the grid.
+     * @param y   The y-coordinate of the cell on the grid.
+     */
+    public void draw(PApplet app, int x, int y) {
+        if (image != null) {
+            image.draw(app, x * App.CELLSIZE, y * App.CELLSIZE);
+        }
+    }
+
+    /**
+     * Returns the name of the kind of cell.
+     *
+     * @return The kind of cell.
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the sprite the cell is drawn with.
+     *
+     * @return The sprite, or {@code null} if images are not loaded.
+     */
+    public Sprite getImage() {
+        return image;
+    }
+
+    /**
+     * Checks whether the board draws cells of this kind itself.
+     *
+     * @return {@code true} if the board draws the cell, {@code false} if something else covers it.
+     */
+    public boolean isDrawnWithBoard() {
+        return drawnWithBoard;
+    }
+}
@@ -1,8 +1,6 @@
 package inkball;
 
 import processing.core.PApplet;
-import processing.core.PImage;
-import processing.core.PVector;
 
 /**
  * The {@code Wall} class represents a stationary wall object on the Inkball game board.
@@ -18,7 +16,7 @@ public class Wall implements Drawable, Collidable {
     private int y;
 
     /** The image of the wall, used for rendering. */
-    private PImage image;
+    private Sprite image;
 
     /** The type of the wall, which can affect ball interactions. */
     private int type;
@@ -31,7 +29,7 @@ public class Wall implements Drawable, Collidable {
      * @param image  The image representing the wall.
      * @param type   The type of the wall, which determines how it interacts with balls.
      */
-    public Wall(int x, int y, PImage image, int type) {
+    public Wall(int x, int y, Sprite image, int type) {
         this.x = x;
         this.y = y;
         this.image = image;
@@ -54,7 +52,9 @@ public class Wall implements Drawable, Collidable {
      */
     @Override
     public void draw(PApplet app) {
-        app.image(image, x * App.CELLSIZE, y * App.CELLSIZE);
+        if (image != null) {
+            image.draw(app, x * App.CELLSIZE, y * App.CELLSIZE);
+        }
     }
 
     /**
@@ -104,24 +104,140 @@ public class Wall implements Drawable, Collidable {
             ball.setX(ball.getX() + collisionX * overlap / 2);
             ball.setY(ball.getY() + collisionY * overlap / 2);
 
-            // Reflect the ball's velocity
-            PVector velocity = new PVector(ball.getVx(), ball.getVy());
-            PVector normal = new PVector(collisionX, collisionY);
-            float dotProduct = velocity.dot(normal);
-            velocity.sub(PVector.mult(normal, 2 * dotProduct));
+            bounce(ball, collisionX, collisionY);
+            return true;
+        }
 
-            ball.setVx(velocity.x);
-            ball.setVy(velocity.y);
+        return false;
+    }
 
-            // If the wall has a type, update the ball's type if needed
-            if (this.type != 0 && ball.getType() != this.type) {
-                ball.updateType(this.type);
-            }
+    /**
+     * Sweeps the ball along its next step against this wall. The ball touches the wall when its centre
+     * enters the wall's bounds grown by the ball's radius, whose outline is made of the four faces pushed
+     * out by the radius and a circle of that radius around each corner.
+     * A ball that already overlaps the wall is left to {@link #checkCollision(Ball)}.
+     *
+     * @param ball The {@code Ball} object to sweep against the wall.
+     * @return The fraction of the step at which the ball first touches the wall, or {@link #NO_IMPACT}.
+     */
+    @Override
+    public float impactTime(Ball ball) {
+        float startX = ball.getX();
+        float startY = ball.getY();
+        float dx = ball.getVx();
+        float dy = ball.getVy();
+        float radius = ball.getRadius();
 
-            return true;
+        float left = x * App.CELLSIZE;
+        float right = left + App.CELLSIZE;
+        float top = y * App.CELLSIZE;
+        float bottom = top + App.CELLSIZE;
+
+        float closestX = clamp(startX, left, right);
+        float closestY = clamp(startY, top, bottom);
+        float distanceX = startX - closestX;
+        float distanceY = startY - closestY;
+        if (distanceX * distanceX + distanceY * distanceY < radius * radius) {
+            return NO_IMPACT;
         }
 
-        return false;
+        float earliest = NO_IMPACT;
+
+        // Faces, each pushed out by the radius and crossed from the outside
+        if (dx > 0) earliest = Math.min(earliest, faceTime(left - radius - startX, dx, startY, dy, top, bottom));
+        if (dx < 0) earliest = Math.min(earliest, faceTime(right + radius - startX, dx, startY, dy, top, bottom));
+        if (dy > 0) earliest = Math.min(earliest, faceTime(top - radius - startY, dy, startX, dx, left, right));
+        if (dy < 0) earliest = Math.min(earliest, faceTime(bottom + radius - startY, dy, startX, dx, left, right));
+
+        // Corners
+        earliest = Math.min(earliest, cornerTime(left - startX, top - startY, dx, dy, radius));
+        earliest = Math.min(earliest, cornerTime(right - startX, top - startY, dx, dy, radius));
+        earliest = Math.min(earliest, cornerTime(left - startX, bottom - startY, dx, dy, radius));
+        earliest = Math.min(earliest, cornerTime(right - startX, bottom - startY, dx, dy, radius));
+
+        return earliest;
+    }
+
+    /**
+     * Reflects the ball's velocity off the wall along the given unit normal, and updates the ball's type
+     * if this wall is coloured.
+     *
+     * @param ball    The {@code Ball} object bouncing off the wall.
+     * @param normalX The x-component of the unit normal pointing from the wall to the ball.
+     * @param normalY The y-component of the unit normal pointing from the wall to the ball.
+     */
+    void bounce(Ball ball, float normalX, float normalY) {
+        // Reflect the ball's velocity
+        float dotProduct = ball.getVx() * normalX + ball.getVy() * normalY;
+        ball.setVx(ball.getVx() - 2 * dotProduct * normalX);
+        ball.setVy(ball.getVy() - 2 * dotProduct * normalY);
+
+        // If the wall has a type, update the ball's type if needed
+        if (this.type != 0 && ball.getType() != this.type) {
+            ball.updateType(this.type);
+        }
+    }
+
+    /**
+     * Bounces a ball that has been swept into contact with the wall, using the normal from the closest
+     * point on the wall to the ball's centre.
+     *
+     * @param ball The {@code Ball} object touching the wall.
+     */
+    void bounce(Ball ball) {
+        float left = x * App.CELLSIZE;
+        float top = y * App.CELLSIZE;
+        float distanceX = ball.getX() - clamp(ball.getX(), left, left + App.CELLSIZE);
+        float distanceY = ball.getY() - clamp(ball.getY(), top, top + App.CELLSIZE);
+        float distance = (float) Math.sqrt(distanceX * distanceX + distanceY * distanceY);
+        if (distance > 0) {
+            bounce(ball, distanceX / distance, distanceY / distance);
+        }
+    }
+
+    /**
+     * Finds when a moving point crosses one of the wall's faces pushed out by the ball's radius.
+     *
+     * @param offset    The distance along the movement axis from the start to the pushed-out face.
+     * @param speed     The step along the movement axis.
+     * @param start     The start position along the face.
+     * @param step      The step along the face.
+     * @param faceStart The start of the face.
+     * @param faceEnd   The end of the face.
+     * @return The fraction of the step at which the face is crossed, or {@link #NO_IMPACT}.
+     */
+    private static float faceTime(float offset, float speed, float start, float step, float faceStart, float faceEnd) {
+        float t = offset / speed;
+        if (t < 0 || t > 1) {
+            return NO_IMPACT;
+        }
+        float along = start + step * t;
+        return along >= faceStart && along <= faceEnd ? t : NO_IMPACT;
+    }
+
+    /**
+     * Finds when a moving point first comes within the given radius of a corner.
+     *
+     * @param cornerX The x-offset of the corner from the start position.
+     * @param cornerY The y-offset of the corner from the start position.
+     * @param dx      The step along the x-axis.
+     * @param dy      The step along the y-axis.
+     * @param radius  The radius of the ball.
+     * @return The fraction of the step at which the corner is reached, or {@link #NO_IMPACT}.
+     */
+    private static float cornerTime(float cornerX, float cornerY, float dx, float dy, float radius) {
+        float a = dx * dx + dy * dy;
+        if (a == 0) {
+            return NO_IMPACT;
+        }
+        float b = -2 * (cornerX * dx + cornerY * dy);
+        float c = cornerX * cornerX + cornerY * cornerY - radius * radius;
+        float discriminant = b * b - 4 * a * c;
+        if (discriminant < 0) {
+            return NO_IMPACT;
+        }
+        float t = (-b - (float) Math.sqrt(discriminant)) / (2 * a);
+        return t >= 0 && t <= 1 ? t : NO_IMPACT;
     }
 
     /**
@@ -132,7 +248,7 @@ public class Wall implements Drawable, Collidable {
      * @param max   The maximum value.
      * @return The clamped value.
      */
-    private float clamp(float value, float min, float max) {
+    private static float clamp(float value, float min, float max) {
         return Math.max(min, Math.min(max, value));
     }
 
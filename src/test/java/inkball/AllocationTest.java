@@ -0,0 +1,145 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AllocationTest {
+    private static final int WARM_UP_STEPS = 100000;
+    private static final int STEPS = 10000;
+    private static final int ROUNDS = 3;
+    private static final int WARM_UP_BATCH_STEPS = 1000;
+    private static final int LINES = 40;
+
+    // A walled box with balls bouncing around two speed tiles and the ink lines drawn by each
+    // test, and a hole shut away in a corner so that its attraction is checked every step
+    // without any ball being captured
+    private static final String[] LAYOUT = {
+            "XXXXXXXXXXXXXXXXXX",
+            "X            X H0X",
+            "X            X   X",
+            "X   B0       XXXXX",
+            "X                X",
+            "X        B1      X",
+            "X                X",
+            "X     >          X",
+            "X                X",
+            "X  B2            X",
+            "X                X",
+            "X          B3    X",
+            "X                X",
+            "X                X",
+            "X       v        X",
+            "X                X",
+            "X                X",
+            "XXXXXXXXXXXXXXXXXX",
+    };
+
+    private com.sun.management.ThreadMXBean threadBean;
+    private App app;
+
+    @BeforeEach
+    public void setUp() {
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        App.random.setSeed(12345);
+
+        app = new App();
+        app.runHeadless(0);
+        app.loadLevelLayout(LAYOUT);
+        // Keep the level running with the same balls in play for the whole test
+        app.ballQueue.clear();
+        app.levelTimer = Float.MAX_VALUE;
+    }
+
+    /**
+     * Replaces the ink on the board with a fresh batch of vertical lines across the open part of
+     * the box. A line stops colliding after its first hit, so each batch is used up as the balls
+     * cross it. The lines are indexed here, so the steps that follow only sweep the index.
+     */
+    private void drawLines() {
+        app.playerLines.clear();
+        app.lineIndex.clear();
+        for (int i = 0; i < LINES; i++) {
+            PlayerLine line = new PlayerLine();
+            for (int y = 40; y <= 540; y += 20) {
+                line.addPoint(48 + i * 8, y);
+            }
+            app.playerLines.add(line);
+        }
+        app.updateLineIndex();
+    }
+
+    /**
+     * Counts the lines of the current batch that a ball has hit.
+     * @return The number of used up lines
+     */
+    private int usedLines() {
+        int used = 0;
+        for (int i = 0; i < app.playerLines.size(); i++) {
+            if (app.playerLines.get(i).hasCollided()) {
+                used++;
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Runs the game for a number of simulation steps.
+     * @param steps The number of steps to run
+     */
+    private void runSteps(int steps) {
+        for (int i = 0; i < steps; i++) {
+            app.step();
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     */
+    private long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    // Tests that a simulation step of a running level, with balls bouncing off ink lines,
+    // allocates no memory at all once it is warmed up.
+    public void testSimulationStepAllocatesNothing() {
+        assertEquals(4, app.balls.size());
+
+        // Let class loading and the JIT settle, which allocate on their own, with lines to hit
+        for (int steps = 0; steps < WARM_UP_STEPS; steps += WARM_UP_BATCH_STEPS) {
+            drawLines();
+            runSteps(WARM_UP_BATCH_STEPS);
+        }
+
+        // Account for anything the allocation counter itself allocates
+        long calibrationStart = allocatedBytes();
+        long calibrationEnd = allocatedBytes();
+        long overhead = calibrationEnd - calibrationStart;
+
+        // A late recompilation can still materialise an object once, so take the best of a few
+        // rounds. Anything the step itself allocates shows up in every round.
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && allocated != 0; round++) {
+            drawLines();
+            long before = allocatedBytes();
+            runSteps(STEPS);
+            allocated = Math.min(allocated, allocatedBytes() - before - overhead);
+            assertTrue(usedLines() > 0, "Balls should have bounced off the ink lines");
+        }
+
+        assertEquals(0, allocated, "Simulation steps allocated " + allocated + " bytes over " + STEPS + " steps");
+        assertEquals(4, app.balls.size(), "Every ball should still be in play");
+        assertFalse(app.levelEnded);
+        for (int i = 0; i < app.balls.size(); i++) {
+            Ball ball = app.balls.get(i);
+            assertTrue(ball.getX() > App.CELLSIZE && ball.getX() < (App.BOARD_WIDTH - 1) * App.CELLSIZE,
+                    "Ball should have stayed inside the walls");
+            assertTrue(ball.getVx() != 0 || ball.getVy() != 0, "Ball should still be moving");
+        }
+    }
+}
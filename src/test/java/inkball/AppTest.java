@@ -3,6 +3,7 @@ package inkball;
 import org.junit.jupiter.api.BeforeEach;
 import processing.core.PApplet;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 import processing.core.PConstants;
@@ -13,7 +14,11 @@ import processing.core.PApplet;
 import processing.event.KeyEvent;
 import processing.event.MouseEvent;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -190,6 +195,93 @@ public class AppTest {
         // Add more assertions based on the expected state of the grid
     }
 
+    @Test
+    // Tests that only holes whose attraction radius reaches a cell are returned for positions in it.
+    public void testGetHolesNear() {
+        app.loadLevelLayout("level1.txt");
+        assertEquals(1, app.getHolesNear(512, 64).length);
+        assertEquals(0, app.getHolesNear(48, 48).length);
+        assertEquals(0, app.getHolesNear(-10, 600).length);
+    }
+
+    @Test
+    // Tests that a speed tile from the level only boosts balls within its boost radius.
+    public void testSpeedTileLookupFromGrid() {
+        app.loadLevelLayout("extensionLevel.txt");
+        // The '>' tile at cell (3, 2) has its centre at (112, 80)
+        Ball near = new Ball(0, 0, null, 1);
+        near.setX(112);
+        near.setY(80);
+        near.setVx(1);
+        near.setVy(0);
+        Ball far = new Ball(0, 0, null, 1);
+        far.setX(112);
+        far.setY(120);
+        far.setVx(1);
+        far.setVy(0);
+        app.balls.add(near);
+        app.balls.add(far);
+
+        app.step();
+
+        assertEquals(1.05f, near.getVx(), 0.001);
+        assertEquals(1f, far.getVx(), 0.001);
+    }
+
+    /**
+     * Fills the board of the given app with a large number of balls in a repeatable layout.
+     */
+    private List<Ball> addStressBalls(App target, int count) {
+        App.random.setSeed(777);
+        List<Ball> added = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ball ball = new Ball(1 + App.random.nextInt(App.BOARD_WIDTH - 2),
+                    1 + App.random.nextInt(App.BOARD_HEIGHT - 2), null, App.random.nextInt(5));
+            ball.setX(ball.getX() + App.random.nextFloat() * App.CELLSIZE);
+            ball.setY(ball.getY() + App.random.nextFloat() * App.CELLSIZE);
+            target.balls.add(ball);
+            added.add(ball);
+        }
+        return added;
+    }
+
+    @Test
+    // Tests that the parallel physics step leaves the board, score and ball queue exactly as the single-threaded step does.
+    public void testParallelStepMatchesSequential() {
+        App sequential = app;
+        sequential.parallelPhysics = false;
+        App parallel = new App();
+        parallel.noLoop();
+        PApplet.runSketch(new String[]{"App"}, parallel);
+        parallel.setup();
+        parallel.loadLevel(0);
+
+        int count = App.PHYSICS_CHUNK_SIZE * 4 + 17;
+        // Both apps share the static random generator, so run them one after the other from the same seed
+        List<Ball> sequentialBalls = addStressBalls(sequential, count);
+        for (int i = 0; i < 60; i++) {
+            sequential.step();
+        }
+        List<Ball> parallelBalls = addStressBalls(parallel, count);
+        for (int i = 0; i < 60; i++) {
+            parallel.step();
+        }
+
+        assertEquals(sequential.score, parallel.score);
+        assertEquals(sequential.ballQueue, parallel.ballQueue);
+        assertEquals(sequential.balls.size(), parallel.balls.size());
+        for (int i = 0; i < count; i++) {
+            Ball expected = sequentialBalls.get(i);
+            Ball actual = parallelBalls.get(i);
+            assertEquals(expected.getX(), actual.getX());
+            assertEquals(expected.getY(), actual.getY());
+            assertEquals(expected.isCaptured(), actual.isCaptured());
+        }
+        for (int i = 0; i < sequential.balls.size(); i++) {
+            assertEquals(sequentialBalls.indexOf(sequential.balls.get(i)), parallelBalls.indexOf(parallel.balls.get(i)));
+        }
+    }
+
     @Test
     // Tests if the speed boost is correctly applied to a ball by a speed tile.
     public void testSpeedTileBehavior() {
@@ -213,7 +305,7 @@ public class AppTest {
 
         // Clear the ball queue and remove any existing balls
         app.ballQueue.clear();
-        app.getDrawables().removeIf(d -> d instanceof Ball);
+        app.balls.clear();
 
         // Print the state before checking win condition
         long ballCount = app.getDrawables().stream().filter(d -> d instanceof Ball).count();
@@ -534,22 +626,24 @@ public class AppTest {
     }
 
     @Test
-    // Tests if the correct overlay image is returned for different tile types.
-    public void testGetTileOverlayImage() {
-        assertNotNull(app.getTileOverlayImage("X"));
-        assertNotNull(app.getTileOverlayImage("1"));
-        assertNotNull(app.getTileOverlayImage("S"));
-        assertNotNull(app.getTileOverlayImage("H0"));
-        assertNotNull(app.getTileOverlayImage("B1"));
+    // Tests that every image the entities of a level are drawn with has been loaded.
+    public void testLayoutImagesLoaded() {
+        LevelLayout layout = LevelLayout.parse(new String[]{"X1SH0B1", "^v<>"});
+        for (int i = 0; i < layout.getEntityCount(); i++) {
+            assertNotNull(app.image(layout.getImageName(i)), layout.getImageName(i));
+        }
     }
 
     @Test
-    // Tests if the correct drawable object is returned for different tile types.
-    public void testGetDrawableForTileType() {
-        assertNotNull(app.getDrawableForTileType("X", 0, 0, null, '0'));
-        assertNotNull(app.getDrawableForTileType("S", 0, 0, null, '0'));
-        assertNotNull(app.getDrawableForTileType("H1", 0, 0, null, '1'));
-        assertNotNull(app.getDrawableForTileType("B2", 0, 0, null, '2'));
+    // Tests that a layout's entities are placed on the board as the objects they stand for.
+    public void testLayoutEntitiesPlaced() {
+        app.loadLevelLayout(new String[]{"XS", "H1B2"});
+        List<Drawable> drawables = app.getDrawables();
+        assertTrue(drawables.get(0) instanceof Wall);
+        assertTrue(drawables.get(1) instanceof Hole);
+        assertTrue(drawables.get(2) instanceof Spawner);
+        assertTrue(drawables.get(3) instanceof Ball);
+        assertEquals(4, drawables.size());
     }
 
     @Test
@@ -572,6 +666,53 @@ public class AppTest {
         assertTrue(app.playerLines.isEmpty());
     }
 
+    @Test
+    // Tests that the wall broadphase detects a ball touching the border wall of the layout.
+    public void testCheckWallCollisionsNearWall() {
+        app.loadLevelLayout("level1.txt");
+        Ball ball = new Ball(1, 1, null, 0);
+        ball.setX(40);
+        ball.setVx(-2);
+        assertTrue(app.checkWallCollisions(ball));
+        assertTrue(ball.getVx() > 0, "Ball should bounce off the left wall");
+    }
+
+    @Test
+    // Tests that the wall broadphase ignores walls outside the ball's neighbouring cells.
+    public void testCheckWallCollisionsAwayFromWalls() {
+        app.loadLevelLayout("level1.txt");
+        Ball ball = new Ball(1, 1, null, 0);
+        assertFalse(app.checkWallCollisions(ball));
+
+        ball.setX(-100);
+        ball.setY(-100);
+        assertFalse(app.checkWallCollisions(ball), "Balls outside the board should not index out of the grid");
+    }
+
+    @Test
+    // Tests that a ball moving fast enough to skip past the border wall stops and bounces at it instead.
+    public void testMoveBallSweptAgainstWalls() {
+        app.loadLevelLayout("level1.txt");
+        Ball ball = new Ball(1, 2, null, 0);
+        ball.setVx(-100);
+        ball.setVy(0);
+        assertTrue(app.moveBall(ball));
+        assertEquals(App.CELLSIZE + ball.getRadius(), ball.getX(), 1e-3f);
+        assertEquals(100, ball.getVx(), 1e-3f);
+    }
+
+    @Test
+    // Tests that a ball with a clear path moves by its full velocity.
+    public void testMoveBallClearPath() {
+        app.loadLevelLayout("level1.txt");
+        Ball ball = new Ball(2, 2, null, 0);
+        ball.setVx(2);
+        ball.setVy(-2);
+        assertFalse(app.moveBall(ball));
+        assertEquals(2 * App.CELLSIZE + App.CELLSIZE / 2f + 2, ball.getX(), 1e-3f);
+        assertEquals(2 * App.CELLSIZE + App.CELLSIZE / 2f - 2, ball.getY(), 1e-3f);
+    }
+
     @Test
     // Tests if the win animation is initialized correctly.
     public void testInitializeWinAnimation() {
@@ -591,6 +732,137 @@ public class AppTest {
         assertTrue(app.leftX > 0 || app.leftY > 0 || app.rightX < App.BOARD_WIDTH - 1 || app.rightY < App.BOARD_HEIGHT - 1);
     }
 
+    @Test
+    // Tests that the static board layer is rendered once and only rendered again after the board changes.
+    public void testBoardLayerInvalidation() {
+        app.loadLevelLayout("level1.txt");
+        assertTrue(app.boardLayerDirty);
+        app.render();
+        assertFalse(app.boardLayerDirty);
+        app.render();
+        assertFalse(app.boardLayerDirty);
+
+        app.initializeWinAnimation();
+        app.performWinAnimationStep();
+        assertTrue(app.boardLayerDirty);
+        app.render();
+        assertFalse(app.boardLayerDirty);
+    }
+
+    @Test
+    // Tests that finished lines are kept in the ink layer and the layer is only rebuilt when a line goes away.
+    public void testInkLayerTracksFinishedLines() {
+        PlayerLine first = new PlayerLine();
+        first.addPoint(10, 10);
+        first.addPoint(100, 10);
+        PlayerLine second = new PlayerLine();
+        second.addPoint(10, 50);
+        second.addPoint(100, 50);
+
+        app.playerLines.add(first);
+        app.render();
+        assertEquals(List.of(first), app.inkedLines);
+
+        app.playerLines.add(second);
+        app.render();
+        assertEquals(List.of(first, second), app.inkedLines);
+
+        app.playerLines.remove(first);
+        app.render();
+        assertEquals(List.of(second), app.inkedLines);
+
+        app.playerLines.clear();
+        app.render();
+        assertTrue(app.inkedLines.isEmpty());
+    }
+
+    @Test
+    // Tests that dirty-rectangle rendering only repaints around moving balls once the first frame is drawn.
+    public void testDirtyRectRendering() {
+        int boardArea = App.BOARD_WIDTH * App.CELLSIZE * App.BOARD_HEIGHT * App.CELLSIZE;
+        app.dirtyRectRendering = true;
+        app.loadLevelLayout("level1.txt");
+        app.balls.clear();
+        app.render();
+        assertEquals(boardArea, app.lastRepaintArea);
+
+        Ball ball = new Ball(5, 5, null, 1);
+        app.balls.add(ball);
+        app.render();
+        assertEquals(26 * 26, app.lastRepaintArea);
+        ball.setX(ball.getX() + 3);
+        app.render();
+        // The ball's old and new bounds merge into one small rectangle
+        assertEquals(29 * 26, app.lastRepaintArea);
+
+        app.balls.clear();
+        app.render();
+        assertEquals(26 * 26, app.lastRepaintArea);
+        app.render();
+        assertEquals(0, app.lastRepaintArea);
+    }
+
+    @Test
+    // Tests that a headless run advances the game without loading images or rendering.
+    public void testRunHeadless() {
+        App headlessApp = new App();
+        int steps = headlessApp.runHeadless(90);
+        assertEquals(90, steps);
+        assertTrue(headlessApp.headless);
+        assertSame(RenderSink.NONE, headlessApp.renderSink);
+        assertNotNull(headlessApp.levels);
+        assertNull(headlessApp.image("wall0"), "Headless runs should not load images");
+    }
+
+    @Test
+    // Tests that a headless run ends the game after winning the last level without drawing anything.
+    public void testRunHeadlessThroughLastLevel() {
+        App headlessApp = new App();
+        headlessApp.runHeadless(0);
+        headlessApp.currentLevelIndex = headlessApp.levelCount() - 1;
+        headlessApp.loadLevel(headlessApp.currentLevelIndex);
+        headlessApp.balls.clear();
+        headlessApp.ballQueue.clear();
+
+        int steps = 0;
+        while (!headlessApp.gameOver && steps < 10000) {
+            headlessApp.step();
+            headlessApp.renderSink.frame(headlessApp);
+            steps++;
+        }
+        assertTrue(headlessApp.gameOver, "Winning the last level should end the game");
+        assertEquals(headlessApp.levelCount(), headlessApp.currentLevelIndex);
+    }
+
+    @Test
+    // Tests that the headless step limit is read from the command-line arguments.
+    public void testParseSteps() {
+        assertEquals(250, App.parseSteps(new String[]{"--headless", "--steps", "250"}));
+        assertEquals(App.DEFAULT_HEADLESS_STEPS, App.parseSteps(new String[]{"--headless"}));
+    }
+
+    @Test
+    // Tests that the spawn countdown is formatted with one decimal place.
+    public void testFormatTenths() {
+        assertEquals("2.5", App.formatTenths(25));
+        assertEquals("0.0", App.formatTenths(0));
+        assertEquals("10.0", App.formatTenths(100));
+        assertEquals("-0.3", App.formatTenths(-3));
+    }
+
+    @Test
+    // Tests that the score label is only rendered again when the score changes.
+    public void testScoreLabelCachedBetweenFrames() {
+        app.render();
+        int renders = app.scoreLabel.getRenderCount();
+        app.render();
+        app.render();
+        assertEquals(renders, app.scoreLabel.getRenderCount());
+        app.score += 10;
+        app.render();
+        assertEquals(renders + 1, app.scoreLabel.getRenderCount());
+    }
+
     @Test
     // Tests if the updatePosition method correctly updates x and y based on conditions.
     public void testUpdatePosition() {
@@ -669,7 +941,7 @@ public class AppTest {
         app.spawnNextBall(); // Generate a ball
 
         app.paused = true;
-        app.draw();
+        app.step();
         for (Drawable drawable : app.getDrawables()) {
             if (drawable instanceof Ball) {
                 Ball ball = (Ball) drawable;
@@ -701,8 +973,8 @@ public class AppTest {
         app.gameOver = false;
         app.levelTimer = 0; // Set the time to 0
 
-        // Call the draw method, the simulation time ends
-        app.draw();
+        // Run a simulation step, the simulation time ends
+        app.step();
 
         // Check if the game is considered failed after the time is up
         assertTrue(app.levelEnded);
@@ -717,18 +989,179 @@ public class AppTest {
         app.playingWinAnimation = true;
         app.levelTimer = 1000;
 
-        app.draw();
+        app.step();
 
         // Check if the animation is playing
         assertTrue(app.playingWinAnimation);
 
         // After the simulation animation ends, check whether the status is updated
         app.levelTimer = 0;
-        app.draw();
+        app.step();
         assertFalse(app.playingWinAnimation);
         assertEquals(1, app.currentLevelIndex); // The next level is loaded
     }
 
+    @Test
+    // Tests that drawing a frame only advances the simulation by the time that has passed.
+    public void testDrawRunsFixedSteps() {
+        app.levelEnded = false;
+        app.paused = false;
+        app.gameOver = false;
+        app.levelTimer = 100;
+
+        app.resetClock();
+        app.draw();
+        assertEquals(100, app.levelTimer, "No simulation step should run when no time has passed");
+
+        app.delay((int) (1000 / App.FPS) * 3);
+        app.draw();
+        assertTrue(app.levelTimer < 100, "Steps should run once enough time has passed");
+        assertTrue(app.levelTimer >= 100 - App.MAX_STEPS_PER_FRAME, "No more than the step cap should run in one frame");
+    }
+
+    @Test
+    // Tests that late frames skip rendering but still step the simulation, up to the consecutive skip cap.
+    public void testFrameSkipOnOverrun() {
+        app.levelEnded = false;
+        app.paused = false;
+        app.gameOver = false;
+        app.levelTimer = 1000;
+        int[] rendered = {0};
+        app.renderSink = a -> rendered[0]++;
+        app.maxFrameSkip = 2;
+        app.frameBudgetNanos = 1_000_000L;
+
+        app.resetClock();
+        for (int i = 0; i < 3; i++) {
+            app.delay(15);
+            app.draw();
+        }
+        assertEquals(2, app.skippedFrames, "Overrun frames should skip rendering up to the cap");
+        assertEquals(1, rendered[0], "The frame after the cap is reached should be rendered");
+        assertTrue(app.levelTimer < 1000, "Skipped frames should still advance the simulation");
+
+        app.frameBudgetNanos = 1_000_000_000L;
+        app.draw();
+        assertEquals(2, app.skippedFrames, "Frames on time should not be skipped");
+        assertEquals(2, rendered[0]);
+
+        app.maxFrameSkip = 0;
+        app.frameBudgetNanos = 1_000_000L;
+        app.delay(5);
+        app.draw();
+        assertEquals(2, app.skippedFrames, "No frames should be skipped when skipping is turned off");
+    }
+
+    @Test
+    // Tests that the render alpha is the fraction of a step left over after the fixed steps run.
+    public void testRenderAlphaStaysWithinStep() {
+        app.levelEnded = false;
+        app.paused = false;
+        app.gameOver = false;
+
+        app.resetClock();
+        app.delay((int) (1000 / App.FPS) + 10);
+        app.draw();
+        assertTrue(app.renderAlpha >= 0 && app.renderAlpha < 1, "Alpha should be a fraction of one step");
+    }
+
+    @Test
+    // Tests that a second game reuses the images decoded by the first instead of decoding them again.
+    public void testImagesSharedAcrossGames() {
+        int misses = AssetCache.getMisses();
+        int hits = AssetCache.getHits();
+
+        App second = new App();
+        second.noLoop();
+        PApplet.runSketch(new String[]{"App"}, second);
+        second.setup();
+
+        assertEquals(misses, AssetCache.getMisses(), "No image should be decoded again");
+        assertTrue(AssetCache.getHits() > hits);
+        assertSame(app.image("hole1"), second.image("hole1"));
+        assertSame(app.image("speedTile1").getImage(), second.image("speedTile1").getImage());
+    }
+
+    @Test
+    // Tests that the next level is prepared in the background and used when that level is loaded.
+    public void testNextLevelPrefetched() throws Exception {
+        app.loadLevel(0);
+        Level next = app.prefetchedLevel(1);
+        assertNotNull(next, "The next level should be prepared while the current one plays");
+        assertNull(app.prefetchedLevel(2));
+
+        app.loadLevel(1);
+        assertSame(next, app.getCurrentLevel());
+
+        app.loadLevel(1);
+        assertSame(next, app.getCurrentLevel(), "Restarting a level should reuse it instead of reading it again");
+    }
+
+    @Test
+    // Tests that each board cell stores the code of its kind, and the win animation only changes codes.
+    public void testTileCodes() {
+        app.loadLevelLayout("level1.txt");
+        assertEquals(TileTemplate.OCCUPIED, App.getTileCode(0, 0), "Walls draw themselves");
+        assertEquals(TileTemplate.FLOOR, App.getTileCode(1, 1));
+        assertEquals(TileTemplate.OCCUPIED, App.getTileCode(15, 1), "A hole's top-left cell holds the hole");
+        assertEquals(TileTemplate.COVERED, App.getTileCode(16, 1), "The rest of a hole covers the floor");
+
+        assertSame(App.getTileTemplate(1, 1), App.getTileTemplate(2, 1), "Floor cells should share one template");
+        assertTrue(App.getTileTemplate(1, 1).isDrawnWithBoard());
+        assertFalse(App.getTileTemplate(16, 1).isDrawnWithBoard());
+
+        TileTemplate floor = App.getTileTemplate(1, 1);
+        app.loadLevelLayout("level2.txt");
+        assertSame(floor, App.getTileTemplate(1, 1), "Templates should be built once, not per level");
+        app.loadLevelLayout("level1.txt");
+
+        app.leftX = 1;
+        app.leftY = 1;
+        app.performWinAnimationStep();
+        assertEquals(TileTemplate.WIN_WALL, App.getTileCode(1, 1));
+    }
+
+    @Test
+    // Tests reading option values from the command-line arguments.
+    public void testParseOption() {
+        String[] args = {"--renderer", "p2d", "--benchmark", "300"};
+        assertEquals("p2d", App.parseOption(args, "--renderer"));
+        assertEquals("300", App.parseOption(args, "--benchmark"));
+        assertNull(App.parseOption(args, "--steps"));
+        assertNull(App.parseOption(new String[]{"--renderer"}, "--renderer"));
+        assertNull(App.parseOption(null, "--renderer"));
+    }
+
+    @Test
+    // Tests that renderer names resolve to Processing renderers and unknown names are rejected.
+    public void testResolveRenderer() {
+        assertEquals(PApplet.JAVA2D, App.resolveRenderer("JAVA2D"));
+        assertEquals(PApplet.JAVA2D, App.resolveRenderer("java2d"));
+        assertNull(App.resolveRenderer("SVG"));
+        String p2d = App.resolveRenderer("P2D");
+        assertTrue(p2d == null || p2d.equals(PApplet.P2D), "P2D should resolve only when it can run");
+        String fx2d = App.resolveRenderer("FX2D");
+        assertTrue(fx2d == null || fx2d.equals(PApplet.FX2D), "FX2D should resolve only when it can run");
+    }
+
+    @Test
+    // Tests that dirty rectangle rendering is only kept on with a renderer that keeps the previous frame.
+    public void testDirtyRectRenderingNeedsJava2D(@TempDir Path dir) throws IOException {
+        assertTrue(App.keepsPreviousFrame("JAVA2D"));
+        assertFalse(App.keepsPreviousFrame("P2D"));
+        assertFalse(App.keepsPreviousFrame("FX2D"));
+
+        JSONObject config = ResourceLoader.loadJSON(app.configPath);
+        config.setBoolean("dirty_rect_rendering", true);
+        App p2d = new App();
+        Path configFile = dir.resolve("config.json");
+        Files.write(configFile, config.toString().getBytes(StandardCharsets.UTF_8));
+        p2d.configPath = configFile.toString();
+        p2d.rendererName = "P2D";
+        p2d.runHeadless(0);
+        assertFalse(p2d.dirtyRectRendering, "P2D does not keep the previous frame to repaint over");
+    }
+
     @Test
     // Tests if the main method runs without throwing exceptions.
     public void testMainMethod() {
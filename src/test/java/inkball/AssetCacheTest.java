@@ -0,0 +1,76 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PImage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetCacheTest {
+    private List<String> decoded;
+
+    @BeforeEach
+    public void setUp() {
+        AssetCache.clear();
+        decoded = new ArrayList<>();
+    }
+
+    /**
+     * Decodes a blank image, recording which asset was asked for.
+     *
+     * @param name The name of the asset.
+     * @return A new image.
+     */
+    private PImage decode(String name) {
+        decoded.add(name);
+        return new PImage(4, 4, PImage.ARGB);
+    }
+
+    @Test
+    // Tests that an asset is decoded on the first lookup only and the same image is shared afterwards.
+    public void testDecodesOnce() {
+        PImage first = AssetCache.getImage("wall1", this::decode);
+        PImage second = AssetCache.getImage("wall1", this::decode);
+        assertSame(first, second);
+        assertEquals(List.of("wall1"), decoded);
+        assertEquals(1, AssetCache.getMisses());
+        assertEquals(1, AssetCache.getHits());
+    }
+
+    @Test
+    // Tests that different assets are cached separately.
+    public void testSeparateAssets() {
+        PImage wall = AssetCache.getImage("wall1", this::decode);
+        PImage hole = AssetCache.getImage("hole1", this::decode);
+        assertNotSame(wall, hole);
+        assertEquals(2, AssetCache.size());
+        assertEquals(2, AssetCache.getMisses());
+        assertEquals(0, AssetCache.getHits());
+    }
+
+    @Test
+    // Tests that an asset the decoder cannot provide is not cached and is tried again.
+    public void testMissingAssetNotCached() {
+        assertNull(AssetCache.getImage("missing", name -> null));
+        assertNull(AssetCache.getImage("missing", name -> null));
+        assertEquals(0, AssetCache.size());
+        assertEquals(2, AssetCache.getMisses());
+    }
+
+    @Test
+    // Tests that clearing the cache discards the images and resets the statistics.
+    public void testClear() {
+        AssetCache.getImage("ball0", this::decode);
+        AssetCache.getImage("ball0", this::decode);
+        AssetCache.clear();
+        assertEquals(0, AssetCache.size());
+        assertEquals(0, AssetCache.getHits());
+        assertEquals(0, AssetCache.getMisses());
+
+        AssetCache.getImage("ball0", this::decode);
+        assertEquals(List.of("ball0", "ball0"), decoded);
+    }
+}
@@ -0,0 +1,84 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BallListTest {
+    private BallList balls;
+    private Ball first;
+    private Ball second;
+    private Ball third;
+
+    @BeforeEach
+    public void setUp() {
+        App.random.setSeed(12345);
+        balls = new BallList();
+        first = new Ball(1, 1, null, 0);
+        second = new Ball(2, 2, null, 1);
+        third = new Ball(3, 3, null, 2);
+        balls.add(first);
+        balls.add(second);
+        balls.add(third);
+    }
+
+    @Test
+    // Tests that balls are added in order and are not added twice.
+    public void testAdd() {
+        assertEquals(3, balls.size());
+        assertSame(first, balls.get(0));
+        assertSame(third, balls.get(2));
+
+        balls.add(second);
+        assertEquals(3, balls.size(), "A ball already in the list should not be added again");
+    }
+
+    @Test
+    // Tests that removing a ball moves the last ball into its slot.
+    public void testRemoveSwapsLastBall() {
+        assertTrue(balls.remove(first));
+        assertEquals(2, balls.size());
+        assertSame(third, balls.get(0));
+        assertSame(second, balls.get(1));
+        assertFalse(balls.contains(first));
+        assertTrue(balls.contains(third));
+
+        assertTrue(balls.remove(third));
+        assertSame(second, balls.get(0));
+        assertTrue(balls.remove(second));
+        assertTrue(balls.isEmpty());
+    }
+
+    @Test
+    // Tests that removing a ball that is not in the list does nothing.
+    public void testRemoveMissingBall() {
+        Ball other = new Ball(4, 4, null, 0);
+        assertFalse(balls.remove(other));
+        balls.remove(first);
+        assertFalse(balls.remove(first));
+        assertEquals(2, balls.size());
+    }
+
+    @Test
+    // Tests that clearing releases every ball so it can be added again.
+    public void testClear() {
+        balls.clear();
+        assertTrue(balls.isEmpty());
+        assertFalse(balls.contains(second));
+
+        balls.add(second);
+        assertSame(second, balls.get(0));
+    }
+
+    @Test
+    // Tests that the list grows beyond its initial capacity.
+    public void testGrow() {
+        for (int i = 0; i < 100; i++) {
+            balls.add(new Ball(i, i, null, 0));
+        }
+        assertEquals(103, balls.size());
+        assertTrue(balls.remove(first));
+        assertEquals(102, balls.size());
+    }
+}
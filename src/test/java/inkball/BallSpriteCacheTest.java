@@ -0,0 +1,68 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BallSpriteCacheTest {
+    private PImage sheet;
+    private Sprite sprite;
+
+    @BeforeEach
+    public void setUp() {
+        BallSpriteCache.clear();
+        sheet = new PImage(64, 64, PConstants.ARGB);
+        sprite = new Sprite(sheet, 8, 16, 24, 24);
+    }
+
+    @Test
+    // Tests that a sprite drawn at its own size is used as it is, straight from the sheet.
+    public void testFullSizeReturnsSprite() {
+        assertSame(sprite, BallSpriteCache.get(sprite, 24));
+        assertSame(sprite, BallSpriteCache.get(sprite, 24.3f));
+    }
+
+    @Test
+    // Tests that a smaller size gives a scaled copy with the rounded diameter.
+    public void testScaledCopy() {
+        Sprite scaled = BallSpriteCache.get(sprite, 12.2f);
+        assertNotSame(sprite, scaled);
+        assertNotSame(sheet, scaled.getImage(), "The scaled copy should not resize the sheet");
+        assertEquals(12, scaled.getWidth());
+        assertEquals(12, scaled.getHeight());
+        assertEquals(12, scaled.getImage().width);
+        assertEquals(24, sprite.getWidth(), "The original sprite should not be resized");
+        assertEquals(64, sheet.width);
+    }
+
+    @Test
+    // Tests that sizes rounding to the same diameter share one scaled copy.
+    public void testSizesShareBucket() {
+        Sprite first = BallSpriteCache.get(sprite, 11.6f);
+        Sprite second = BallSpriteCache.get(sprite, 12.4f);
+        assertSame(first, second);
+        assertNotSame(first, BallSpriteCache.get(sprite, 13));
+    }
+
+    @Test
+    // Tests that tiny balls are never scaled below one pixel.
+    public void testMinimumSize() {
+        assertEquals(1, BallSpriteCache.get(sprite, 0.2f).getWidth());
+    }
+
+    @Test
+    // Tests that a ball without a sprite, as in a headless run, gets no sprite instead of an error.
+    public void testNullSprite() {
+        assertNull(BallSpriteCache.get(null, 12));
+    }
+
+    @Test
+    // Tests that each sprite has its own scaled copies.
+    public void testSeparateSprites() {
+        Sprite other = new Sprite(sheet, 32, 16, 24, 24);
+        assertNotSame(BallSpriteCache.get(sprite, 10), BallSpriteCache.get(other, 10));
+    }
+}
@@ -3,7 +3,6 @@ package inkball;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
-import processing.core.PImage;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,7 +10,7 @@ public class BallTest {
     private static final float ORIGINAL_RADIUS = 12f;
     private App app;
     private Ball ball;
-    private PImage mockImage;
+    private Sprite mockImage;
 
     @BeforeEach
     public void setUp() {
@@ -19,7 +18,7 @@ public class BallTest {
         app.noLoop();
         PApplet.runSketch(new String[]{"Test"}, app);
         app.setup();
-        mockImage = app.createImage(32, 32, PApplet.RGB);
+        mockImage = new Sprite(app.createImage(32, 32, PApplet.RGB));
         ball = new Ball(1, 1, mockImage, 1);
         App.random.setSeed(12345);
     }
@@ -44,6 +43,32 @@ public class BallTest {
         assertNotEquals(initialY, ball.getY());
     }
 
+    @Test
+    // Tests that the drawn position is interpolated between the previous and current simulation position.
+    public void testRenderPositionInterpolation() {
+        ball.storePreviousPosition();
+        ball.setX(60);
+        ball.setY(40);
+        assertEquals(48, ball.getRenderX(0), 0.01);
+        assertEquals(48, ball.getRenderY(0), 0.01);
+        assertEquals(54, ball.getRenderX(0.5f), 0.01);
+        assertEquals(44, ball.getRenderY(0.5f), 0.01);
+        assertEquals(60, ball.getRenderX(1), 0.01);
+        assertEquals(40, ball.getRenderY(1), 0.01);
+
+        ball.storePreviousPosition();
+        assertEquals(60, ball.getRenderX(0), 0.01);
+        assertEquals(40, ball.getRenderY(0), 0.01);
+    }
+
+    @Test
+    // Tests that a ball without a sprite draws nothing instead of passing a null image to Processing.
+    public void testDrawWithoutSprite() {
+        TestPApplet recorder = new TestPApplet();
+        new Ball(1, 1, null, 0).draw(recorder, 0.5f);
+        assertTrue(recorder.imageCalls.isEmpty());
+    }
+
     @Test
     // Tests the updateType method to verify if the ball type is correctly updated.
     public void testBallUpdateType() {
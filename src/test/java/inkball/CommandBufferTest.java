@@ -0,0 +1,97 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandBufferTest {
+    private CommandBuffer buffer;
+    private List<String> applied;
+    private CaptureHandler recorder;
+    private Ball ball;
+
+    @BeforeEach
+    public void setUp() {
+        buffer = new CommandBuffer();
+        applied = new ArrayList<>();
+        ball = new Ball(1, 1, null, 2);
+        recorder = new CaptureHandler() {
+            @Override
+            public void removeBall(Ball removed) {
+                applied.add("remove " + (removed == ball));
+            }
+
+            @Override
+            public void increaseScore(int type) {
+                applied.add("increase " + type);
+            }
+
+            @Override
+            public void decreaseScore(int type) {
+                applied.add("decrease " + type);
+            }
+
+            @Override
+            public void respawnBall(Ball respawned) {
+                applied.add("respawn " + (respawned == ball));
+            }
+        };
+    }
+
+    @Test
+    // Tests that recorded commands are not applied until the buffer is replayed.
+    public void testRecordingDoesNotApply() {
+        buffer.removeBall(ball);
+        buffer.increaseScore(1);
+        assertTrue(applied.isEmpty());
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    // Tests that commands are replayed in the order they were recorded.
+    public void testReplayKeepsOrder() {
+        buffer.removeBall(ball);
+        buffer.decreaseScore(2);
+        buffer.respawnBall(ball);
+        buffer.increaseScore(3);
+        buffer.replay(recorder);
+        assertEquals(List.of("remove true", "decrease 2", "respawn true", "increase 3"), applied);
+    }
+
+    @Test
+    // Tests that the buffer grows past its initial capacity without losing commands.
+    public void testGrowsPastInitialCapacity() {
+        for (int i = 0; i < 100; i++) {
+            buffer.increaseScore(i);
+        }
+        buffer.replay(recorder);
+        assertEquals(100, applied.size());
+        assertEquals("increase 99", applied.get(99));
+    }
+
+    @Test
+    // Tests that clearing the buffer discards its commands.
+    public void testClear() {
+        buffer.removeBall(ball);
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        buffer.replay(recorder);
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    // Tests that a hole records its capture side effects into a buffer instead of applying them.
+    public void testHoleCaptureIntoBuffer() {
+        Hole hole = new Hole(2, 2, null, 1);
+        ball.setX(96);
+        ball.setY(96);
+        hole.attractBall(ball, buffer);
+        assertTrue(ball.isCaptured());
+        buffer.replay(recorder);
+        assertEquals(List.of("remove true", "decrease 2", "respawn true"), applied);
+    }
+}
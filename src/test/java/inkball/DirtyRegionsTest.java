@@ -0,0 +1,70 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirtyRegionsTest {
+    private DirtyRegions regions;
+
+    @BeforeEach
+    public void setUp() {
+        regions = new DirtyRegions(576, 576, 4);
+    }
+
+    @Test
+    // Tests that a rectangle is snapped outwards to whole pixels.
+    public void testAddSnapsToPixels() {
+        regions.add(10.5f, 20.2f, 30.1f, 40.9f);
+        assertEquals(1, regions.size());
+        assertEquals(10, regions.getX(0));
+        assertEquals(20, regions.getY(0));
+        assertEquals(21, regions.getWidth(0));
+        assertEquals(21, regions.getHeight(0));
+    }
+
+    @Test
+    // Tests that rectangles are clamped to the surface and empty ones are ignored.
+    public void testAddClampsToSurface() {
+        regions.add(-10, -10, 5, 5);
+        regions.add(600, 600, 700, 700);
+        assertEquals(1, regions.size());
+        assertEquals(0, regions.getX(0));
+        assertEquals(0, regions.getY(0));
+        assertEquals(5, regions.getWidth(0));
+    }
+
+    @Test
+    // Tests that overlapping rectangles, such as a ball's old and new bounds, are merged into one.
+    public void testOverlappingRectanglesMerge() {
+        regions.add(100, 100, 126, 126);
+        regions.add(104, 102, 130, 128);
+        regions.add(300, 300, 310, 310);
+        assertEquals(2, regions.size());
+        assertEquals(100, regions.getX(0));
+        assertEquals(30, regions.getWidth(0));
+        assertEquals(28, regions.getHeight(0));
+    }
+
+    @Test
+    // Tests that too many separate rectangles mark the whole surface dirty.
+    public void testTooManyRegionsMarksFull() {
+        for (int i = 0; i < 5; i++) {
+            regions.add(i * 50, 0, i * 50 + 10, 10);
+        }
+        assertTrue(regions.isFull());
+        assertEquals(1, regions.size());
+        assertEquals(576, regions.getWidth(0));
+        assertEquals(576, regions.getHeight(0));
+    }
+
+    @Test
+    // Tests that clearing forgets every rectangle and the full flag.
+    public void testClear() {
+        regions.markFull();
+        regions.clear();
+        assertFalse(regions.isFull());
+        assertEquals(0, regions.size());
+    }
+}
@@ -0,0 +1,64 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameTimerTest {
+    private FrameTimer timer;
+
+    @BeforeEach
+    public void setUp() {
+        timer = new FrameTimer();
+    }
+
+    @Test
+    // Tests that an empty timer reports zero frames and zero times.
+    public void testEmptyTimer() {
+        assertEquals(0, timer.count());
+        assertEquals(0, timer.meanMillis(), 0.0001);
+        assertEquals(0, timer.percentileMillis(0.99), 0.0001);
+    }
+
+    @Test
+    // Tests the mean and percentiles of recorded frame times, given in nanoseconds and reported in milliseconds.
+    public void testMeanAndPercentile() {
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i * 1_000_000L);
+        }
+        assertEquals(100, timer.count());
+        assertEquals(50.5, timer.meanMillis(), 0.0001);
+        assertEquals(99, timer.percentileMillis(0.99), 0.0001);
+        assertEquals(50, timer.percentileMillis(0.5), 0.0001);
+        assertEquals(100, timer.percentileMillis(1), 0.0001);
+    }
+
+    @Test
+    // Tests that a single slow frame shows up in the 99th percentile but barely moves the mean.
+    public void testPercentileCatchesSpike() {
+        for (int i = 0; i < 999; i++) {
+            timer.record(2_000_000L);
+        }
+        for (int i = 0; i < 11; i++) {
+            timer.record(40_000_000L);
+        }
+        assertTrue(timer.meanMillis() < 3);
+        assertEquals(40, timer.percentileMillis(0.99), 0.0001);
+    }
+
+    @Test
+    // Tests that the timer grows past its initial capacity and can be reset.
+    public void testGrowAndReset() {
+        for (int i = 0; i < 1000; i++) {
+            timer.record(1_000_000L);
+        }
+        assertEquals(1000, timer.count());
+        assertEquals(1, timer.meanMillis(), 0.0001);
+
+        timer.reset();
+        assertEquals(0, timer.count());
+        timer.record(3_000_000L);
+        assertEquals(3, timer.meanMillis(), 0.0001);
+    }
+}
@@ -3,14 +3,13 @@ package inkball;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
-import processing.core.PImage;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class HoleTest {
     private App app;
     private Hole hole;
     private Ball ball;
-    private PImage mockImage;
+    private Sprite mockImage;
 
     @BeforeEach
     public void setUp() {
@@ -18,7 +17,7 @@ public class HoleTest {
         app.noLoop();
         PApplet.runSketch(new String[]{"Test"}, app);
         app.setup();
-        mockImage = app.createImage(32, 32, PApplet.RGB);
+        mockImage = new Sprite(app.createImage(32, 32, PApplet.RGB));
         hole = new Hole(2, 2, mockImage, 1);
         ball = new Ball(1, 1, mockImage, 1);
         App.random.setSeed(12345);
@@ -71,7 +70,7 @@ public class HoleTest {
         Ball wrongTypeBall = new Ball(1, 1, mockImage, 2);
         wrongTypeBall.setX(96);
         wrongTypeBall.setY(96);
-        app.getDrawables().add(wrongTypeBall);
+        app.balls.add(wrongTypeBall);
         int initialScore = app.score;
         hole.attractBall(wrongTypeBall, app);
         assertTrue(wrongTypeBall.isCaptured());
@@ -84,10 +83,11 @@ public class HoleTest {
         Ball grayBall = new Ball(1, 1, mockImage, 0);
         grayBall.setX(96);
         grayBall.setY(96);
-        app.getDrawables().add(grayBall);
+        app.balls.add(grayBall);
         int initialScore = app.score;
         hole.attractBall(grayBall, app);
         assertTrue(grayBall.isCaptured());
+        assertFalse(app.balls.contains(grayBall), "Captured ball should be removed from the board");
         assertTrue(app.score > initialScore);
     }
 
@@ -97,10 +97,42 @@ public class HoleTest {
         Hole grayHole = new Hole(2, 2, mockImage, 0);
         ball.setX(96);
         ball.setY(96);
-        app.getDrawables().add(ball);
+        app.balls.add(ball);
         int initialScore = app.score;
         grayHole.attractBall(ball, app);
         assertTrue(ball.isCaptured());
         assertTrue(app.score > initialScore);
     }
-}
\ No newline at end of file
+
+    @Test
+    // Tests that each ball tracks the hole pulling it in, so one ball leaving does not affect another.
+    public void testAttractionStateIsPerBall() {
+        Ball inside = new Ball(1, 1, mockImage, 1);
+        inside.setX(80);
+        inside.setY(80);
+        Ball outside = new Ball(1, 1, mockImage, 1);
+        outside.setX(200);
+        outside.setY(200);
+
+        hole.attractBall(inside, app);
+        hole.attractBall(outside, app);
+        assertSame(hole, inside.getAttractingHole());
+        assertNull(outside.getAttractingHole());
+
+        inside.setX(200);
+        inside.setY(200);
+        hole.attractBall(inside, app);
+        assertNull(inside.getAttractingHole());
+    }
+
+    @Test
+    // Tests that the hole reports which grid cells its attraction radius reaches.
+    public void testAttractsCell() {
+        assertTrue(hole.attractsCell(2, 2));
+        assertTrue(hole.attractsCell(1, 2));
+        assertFalse(hole.attractsCell(1, 1));
+        assertTrue(hole.attractsCell(4, 3));
+        assertFalse(hole.attractsCell(6, 6));
+        assertFalse(hole.attractsCell(0, 2));
+    }
+}
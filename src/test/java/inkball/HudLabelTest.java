@@ -0,0 +1,48 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PApplet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HudLabelTest {
+
+    private TestPApplet mockApp;
+    private HudLabel label;
+
+    @BeforeEach
+    public void setUp() {
+        mockApp = new TestPApplet();
+        PApplet.runSketch(new String[] {"TestPApplet"}, mockApp);
+        mockApp.delay(100);  // Allow some time for setup
+
+        label = new HudLabel(200, 32, PApplet.LEFT, PApplet.TOP, 24, value -> "Score: " + value);
+    }
+
+    @Test
+    // Tests that the text is rasterised the first time the label is drawn.
+    public void testFirstDrawRenders() {
+        assertEquals(0, label.getRenderCount());
+        label.draw(mockApp, 10, 438, 5);
+        assertEquals(1, label.getRenderCount());
+    }
+
+    @Test
+    // Tests that drawing the same value again reuses the cached image.
+    public void testUnchangedValueIsNotRenderedAgain() {
+        for (int i = 0; i < 10; i++) {
+            label.draw(mockApp, 10, 438, 5);
+        }
+        assertEquals(1, label.getRenderCount());
+    }
+
+    @Test
+    // Tests that a new value is rasterised once.
+    public void testChangedValueRendersOnce() {
+        label.draw(mockApp, 10, 438, 5);
+        label.draw(mockApp, 20, 438, 5);
+        label.draw(mockApp, 20, 438, 5);
+        assertEquals(2, label.getRenderCount());
+    }
+}
@@ -0,0 +1,95 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelLayoutTest {
+    private static final String[] ROWS = {
+            "X2S",
+            "B3H1",
+            "> H",
+    };
+
+    @Test
+    // Tests that each character of a layout is resolved into the right entity, in layout order.
+    public void testParseEntities() {
+        LevelLayout layout = LevelLayout.parse(ROWS);
+        assertEquals(6, layout.getEntityCount());
+
+        assertEquals(LevelLayout.WALL, layout.getKind(0));
+        assertEquals(0, layout.getType(0));
+        assertEquals(LevelLayout.WALL, layout.getKind(1));
+        assertEquals(2, layout.getType(1));
+        assertEquals(1, layout.getX(1));
+        assertEquals(LevelLayout.SPAWNER, layout.getKind(2));
+
+        assertEquals(LevelLayout.BALL, layout.getKind(3));
+        assertEquals(3, layout.getType(3));
+        assertEquals(0, layout.getX(3));
+        assertEquals(1, layout.getY(3));
+        assertEquals(LevelLayout.HOLE, layout.getKind(4));
+        assertEquals(1, layout.getType(4));
+        assertEquals(2, layout.getX(4));
+
+        assertEquals(LevelLayout.SPEED_TILE, layout.getKind(5));
+        assertEquals('>', layout.getType(5));
+    }
+
+    @Test
+    // Tests that cells get the codes the board draws them with.
+    public void testParseCodes() {
+        LevelLayout layout = LevelLayout.parse(ROWS);
+        assertEquals(TileTemplate.OCCUPIED, layout.getCode(0, 0), "Walls draw themselves");
+        assertEquals(TileTemplate.FLOOR, layout.getCode(0, 1), "Balls start on the floor");
+        assertEquals(TileTemplate.FLOOR, layout.getCode(1, 1));
+        assertEquals(TileTemplate.OCCUPIED, layout.getCode(2, 1), "A hole's top-left cell holds the hole");
+        assertEquals(TileTemplate.COVERED, layout.getCode(3, 1));
+        assertEquals(TileTemplate.FLOOR, layout.getCode(2, 2), "A later row overwrites the cells under a hole");
+        assertEquals(TileTemplate.COVERED, layout.getCode(3, 2));
+        assertEquals(TileTemplate.NONE, layout.getCode(5, 5), "Cells outside the layout have no code");
+
+        byte[][] codes = layout.copyCodes();
+        codes[0][0] = TileTemplate.WIN_WALL;
+        assertEquals(TileTemplate.OCCUPIED, layout.getCode(0, 0), "Copies should not change the layout");
+    }
+
+    @Test
+    // Tests that entities are drawn with the images for the layout characters they came from.
+    public void testImageNames() {
+        LevelLayout layout = LevelLayout.parse(ROWS);
+        assertEquals("wall0", layout.getImageName(0));
+        assertEquals("wall2", layout.getImageName(1));
+        assertEquals("entrypoint", layout.getImageName(2));
+        assertEquals("ball3", layout.getImageName(3));
+        assertEquals("hole1", layout.getImageName(4));
+        assertEquals("speedTile4", layout.getImageName(5));
+        assertEquals("speedTile1", LevelLayout.parse(new String[]{"^"}).getImageName(0));
+        assertNull(LevelLayout.parse(new String[]{"H7"}).getImageName(0));
+        assertNull(LevelLayout.parse(new String[]{"B9"}).getImageName(0));
+    }
+
+    @Test
+    // Tests that a layout survives being written and read back.
+    public void testWriteAndRead() throws IOException {
+        LevelLayout layout = LevelLayout.parse(ROWS);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        layout.write(new DataOutputStream(bytes));
+        LevelLayout read = LevelLayout.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(layout, read);
+        assertEquals(layout.hashCode(), read.hashCode());
+    }
+
+    @Test
+    // Tests that a layout larger than the board is rejected.
+    public void testRejectsOversizedLayout() {
+        String tooWide = new String(new char[App.BOARD_WIDTH + 1]).replace('\0', 'X');
+        assertThrows(IllegalArgumentException.class, () -> LevelLayout.parse(new String[]{tooWide}));
+        assertThrows(IllegalArgumentException.class, () -> LevelLayout.parse(new String[App.BOARD_HEIGHT + 1]));
+    }
+}
@@ -0,0 +1,78 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelPackTest {
+    @TempDir
+    Path tempDir;
+
+    private Path packPath;
+    private List<Level> levels;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        levels = Arrays.asList(
+                new Level("level1.txt", 120, 10, 1.0f, 1.0f, Arrays.asList("blue", "orange", "grey")),
+                new Level("level2.txt", 180, 6, 1.2f, 1.1f, Arrays.asList("green", "yellow", "purple")),
+                new Level("extensionLevel.txt", 90, 2.5f, 1.3f, 1.3f, Arrays.asList()));
+        packPath = tempDir.resolve("levels.pack");
+        try (OutputStream out = Files.newOutputStream(packPath)) {
+            LevelPack.write(levels, out);
+        }
+    }
+
+    @Test
+    // Tests that every level's settings survive compiling and loading the pack.
+    public void testLevelSettingsRoundTrip() throws IOException {
+        LevelPack pack = LevelPack.open(packPath.toString());
+        assertEquals(3, pack.size());
+
+        Level second = pack.getLevel(1);
+        assertEquals("level2.txt", second.layout);
+        assertEquals(180, second.time);
+        assertEquals(6, second.spawnInterval, 0.0001);
+        assertEquals(1.2f, second.scoreIncreaseModifier, 0.0001);
+        assertEquals(1.1f, second.scoreDecreaseModifier, 0.0001);
+        assertEquals(Arrays.asList("green", "yellow", "grey"), second.balls, "Unknown colors are stored as grey");
+
+        assertTrue(pack.getLevel(2).balls.isEmpty());
+        assertEquals(2.5f, pack.getLevel(2).spawnInterval, 0.0001);
+    }
+
+    @Test
+    // Tests that layouts decoded from the pack match the resolved layout files they were compiled from.
+    public void testLayoutRoundTrip() throws IOException {
+        LevelPack pack = LevelPack.open(packPath.toString());
+        for (int i = 0; i < levels.size(); i++) {
+            assertEquals(LevelLayout.parse(ResourceLoader.loadLines(levels.get(i).layout)), pack.getLayout(i));
+        }
+    }
+
+    @Test
+    // Tests that levels can be decoded in any order and more than once.
+    public void testRandomAccess() throws IOException {
+        LevelPack pack = LevelPack.open(packPath.toString());
+        LevelLayout last = pack.getLayout(2);
+        assertEquals(120, pack.getLevel(0).time);
+        assertEquals(last, pack.getLayout(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> pack.getLevel(3));
+    }
+
+    @Test
+    // Tests that data that is not a level pack is rejected.
+    public void testRejectsOtherData() {
+        assertThrows(IOException.class, () -> new LevelPack(ByteBuffer.wrap("{\"levels\": []}".getBytes())));
+    }
+}
@@ -0,0 +1,108 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineIndexTest {
+    private LineIndex lineIndex;
+    private PlayerLine line;
+    private Ball ball;
+
+    @BeforeEach
+    public void setUp() {
+        App.random.setSeed(12345);
+        lineIndex = new LineIndex(App.BOARD_WIDTH, App.BOARD_HEIGHT);
+        line = new PlayerLine();
+        ball = new Ball(0, 0, null, 0);
+    }
+
+    /**
+     * Adds a point to the test line and indexes it, the same way the app does while dragging.
+     */
+    private void addPoint(float x, float y) {
+        line.addPoint(x, y);
+        lineIndex.update(line);
+    }
+
+    @Test
+    // Tests that a ball next to an indexed segment collides with it and is reflected.
+    public void testCheckCollisionNearSegment() {
+        addPoint(0, 100);
+        addPoint(200, 100);
+        ball.setX(100);
+        ball.setY(90);
+        ball.setVx(0);
+        ball.setVy(1);
+        assertTrue(lineIndex.checkCollision(ball, null));
+        assertTrue(line.hasCollided());
+        assertTrue(ball.getVy() < 0, "Ball should reflect upwards");
+    }
+
+    @Test
+    // Tests that a ball far away from every indexed segment does not collide.
+    public void testCheckCollisionFarFromSegment() {
+        addPoint(0, 100);
+        addPoint(200, 100);
+        ball.setX(400);
+        ball.setY(400);
+        assertFalse(lineIndex.checkCollision(ball, null));
+        assertFalse(line.hasCollided());
+    }
+
+    @Test
+    // Tests that the excluded line, such as the one still being drawn, is ignored.
+    public void testCheckCollisionExcludedLine() {
+        addPoint(0, 100);
+        addPoint(200, 100);
+        ball.setX(100);
+        ball.setY(90);
+        ball.setVy(1);
+        assertFalse(lineIndex.checkCollision(ball, line));
+        assertNull(lineIndex.findLineAt(100, 100, line));
+    }
+
+    @Test
+    // Tests that a long segment is found from a cell well away from its end points.
+    public void testLongSegmentIndexedAcrossCells() {
+        addPoint(10, 300);
+        addPoint(500, 300);
+        assertSame(line, lineIndex.findLineAt(500, 302, null));
+        ball.setX(250);
+        ball.setY(292);
+        ball.setVx(0);
+        ball.setVy(1);
+        assertTrue(lineIndex.checkCollision(ball, null));
+    }
+
+    @Test
+    // Tests that erase queries find single-point lines and ignore empty space.
+    public void testFindLineAt() {
+        addPoint(50, 50);
+        assertSame(line, lineIndex.findLineAt(52, 51, null));
+        assertNull(lineIndex.findLineAt(100, 100, null));
+    }
+
+    @Test
+    // Tests that removing or clearing a line drops all of its entries from the index.
+    public void testRemoveAndClear() {
+        addPoint(50, 50);
+        addPoint(80, 50);
+        lineIndex.remove(line);
+        assertNull(lineIndex.findLineAt(50, 50, null));
+
+        lineIndex.update(line);
+        assertSame(line, lineIndex.findLineAt(80, 50, null));
+        lineIndex.clear();
+        assertNull(lineIndex.findLineAt(80, 50, null));
+    }
+
+    @Test
+    // Tests that points off the board are clamped into the edge buckets instead of throwing.
+    public void testPointsOffBoard() {
+        addPoint(-20, -20);
+        addPoint(-10, -30);
+        assertSame(line, lineIndex.findLineAt(-20, -20, null));
+    }
+}
@@ -176,4 +176,55 @@ public class PlayerLineTest {
         assertTrue(Math.abs(ball.getVy()) < epsilon, "Ball's vy should be very close to 0 after collision.");
         assertEquals(-1, ball.getVx(), epsilon, "Ball's vx should remain unchanged after vertical collision.");
     }
-}
\ No newline at end of file
+
+    @Test
+    // Tests that a fast ball whose next position is already past a thin line still collides with it.
+    public void testCheckCollisionFastBallDoesNotTunnel() {
+        playerLine.addPoint(0, 100);
+        playerLine.addPoint(200, 100);
+        ball.setX(100);
+        ball.setY(60);
+        ball.setVx(0);
+        ball.setVy(80);
+        assertTrue(playerLine.checkCollision(ball), "Ball jumping over the line should still hit it");
+        assertTrue(ball.getVy() < 0, "Ball should reflect upwards");
+    }
+
+    @Test
+    // Tests that the impact time is the fraction of the step at which the ball reaches the line.
+    public void testImpactTime() {
+        playerLine.addPoint(100, 0);
+        playerLine.addPoint(100, 0);
+        ball.setX(50);
+        ball.setY(0);
+        ball.setVx(100);
+        ball.setVy(0);
+        // A zero-length segment collides within half the ball's radius of its point
+        assertEquals((50 - ball.getRadius() / 2) / 100, playerLine.impactTime(ball), 1e-4f);
+
+        ball.setVx(-100);
+        assertEquals(Collidable.NO_IMPACT, playerLine.impactTime(ball));
+    }
+
+    @Test
+    // Tests that only the area of new segments, padded by the stroke width, is marked dirty.
+    public void testMarkDirty() {
+        PlayerLine line = new PlayerLine();
+        line.addPoint(100, 100);
+        line.addPoint(200, 100);
+        line.addPoint(200, 300);
+        DirtyRegions regions = new DirtyRegions(576, 576, 8);
+
+        line.markDirty(regions, 2);
+        assertEquals(1, regions.size());
+        assertEquals(194, regions.getX(0));
+        assertEquals(94, regions.getY(0));
+        assertEquals(12, regions.getWidth(0));
+        assertEquals(212, regions.getHeight(0));
+
+        regions.clear();
+        line.markDirty(regions, 0);
+        assertEquals(94, regions.getX(0));
+        assertEquals(112, regions.getWidth(0));
+    }
+}
@@ -0,0 +1,44 @@
+package inkball;
+
+import org.junit.jupiter.api.Test;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import java.io.FileNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceLoaderTest {
+
+    @Test
+    // Tests that a level layout is read line by line.
+    public void testLoadLines() throws Exception {
+        String[] rows = ResourceLoader.loadLines("level1.txt");
+        assertEquals(App.BOARD_HEIGHT, rows.length);
+        assertEquals(App.BOARD_WIDTH, rows[0].length());
+    }
+
+    @Test
+    // Tests that missing text files and images are reported instead of returning nothing.
+    public void testMissingResources() {
+        assertThrows(FileNotFoundException.class, () -> ResourceLoader.open("missingLevel.txt"));
+        assertThrows(FileNotFoundException.class, () -> ResourceLoader.loadImage("missingImage"));
+    }
+
+    @Test
+    // Tests that an image is decoded from its classpath stream, keeping its transparency.
+    public void testLoadImage() throws Exception {
+        PImage sheet = ResourceLoader.loadImage(SpriteAtlas.SHEET_NAME);
+        assertTrue(sheet.width > 0 && sheet.height > 0);
+
+        PImage speedTile = ResourceLoader.loadImage("speedTile1");
+        assertEquals(App.CELLSIZE, speedTile.width);
+        assertEquals(App.CELLSIZE, speedTile.height);
+    }
+
+    @Test
+    // Tests that the speed tile images, which have transparent pixels, are decoded with an alpha channel.
+    public void testLoadImageKeepsAlpha() throws Exception {
+        assertEquals(PConstants.ARGB, ResourceLoader.loadImage("speedTile1").format);
+    }
+}
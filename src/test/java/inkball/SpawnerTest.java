@@ -3,7 +3,6 @@ package inkball;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
-import processing.core.PImage;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,7 +10,7 @@ public class SpawnerTest {
 
     private Spawner spawner;
     private TestPApplet mockApp;
-    private PImage mockImage;
+    private Sprite mockImage;
 
     @BeforeEach
     public void setUp() {
@@ -19,7 +18,7 @@ public class SpawnerTest {
         PApplet.runSketch(new String[] {"TestPApplet"}, mockApp);
         mockApp.delay(100);  // Allow some time for setup
 
-        mockImage = mockApp.createImage(10, 10, PApplet.ARGB);
+        mockImage = new Sprite(mockApp.createImage(10, 10, PApplet.ARGB));
         spawner = new Spawner(3, 4, mockImage);
         App.random.setSeed(12345);
     }
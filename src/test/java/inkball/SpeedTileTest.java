@@ -4,14 +4,13 @@ package inkball;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
-import processing.core.PImage;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class SpeedTileTest {
 
     private SpeedTile speedTile;
     private TestPApplet mockApp;
-    private PImage mockImage;
+    private Sprite mockImage;
     private TestBall testBall;
 
     // Internal class used for testing
@@ -29,7 +28,7 @@ public class SpeedTileTest {
     private static class TestBall extends Ball {
         private boolean canAccelerate = true;
 
-        public TestBall(float x, float y, PImage image, int type) {
+        public TestBall(float x, float y, Sprite image, int type) {
             super((int) x, (int) y, image, type);
         }
 
@@ -49,7 +48,7 @@ public class SpeedTileTest {
         PApplet.runSketch(new String[] {"TestPApplet"}, mockApp);
         mockApp.delay(100);
 
-        mockImage = mockApp.createImage(10, 10, PApplet.ARGB);
+        mockImage = new Sprite(mockApp.createImage(10, 10, PApplet.ARGB));
         speedTile = new SpeedTile(3, 4, mockImage, '^');
 
         testBall = new TestBall(50, 50, mockImage, 0);
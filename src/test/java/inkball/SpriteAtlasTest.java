@@ -0,0 +1,94 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteAtlasTest {
+    private static final int SHEET_WIDTH = 381;
+    private static final int SHEET_HEIGHT = 400;
+    private PImage sheet;
+
+    @BeforeEach
+    public void setUp() {
+        sheet = new PImage(SHEET_WIDTH, SHEET_HEIGHT, PConstants.RGB);
+        for (int i = 0; i < sheet.pixels.length; i++) {
+            sheet.pixels[i] = 0xFFFFFFFF;
+        }
+    }
+
+    /**
+     * Sets a single pixel of the test sheet.
+     */
+    private void setPixel(int x, int y, int colour) {
+        sheet.pixels[y * SHEET_WIDTH + x] = colour;
+    }
+
+    @Test
+    // Tests that sprites are the right regions of the sheet.
+    public void testSpriteRegions() {
+        setPixel(99, 67, 0xFF112233);   // Top-left of wall2
+        setPixel(34, 131, 0xFF445566);  // Top-left of hole2
+        setPixel(1, 34, 0xFF778899);    // Top-left of the entry point
+        SpriteAtlas atlas = new SpriteAtlas(sheet);
+
+        Sprite wall = atlas.get("wall2");
+        assertEquals(App.CELLSIZE, wall.getWidth());
+        assertEquals(App.CELLSIZE, wall.getHeight());
+        assertEquals(0xFF112233, wall.copyImage().pixels[0]);
+
+        Sprite hole = atlas.get("hole2");
+        assertEquals(App.CELLSIZE * 2, hole.getWidth());
+        assertEquals(0xFF445566, hole.copyImage().pixels[0]);
+
+        assertEquals(0xFF778899, atlas.get("entrypoint").copyImage().pixels[0]);
+        assertEquals(24, atlas.get("ball4").getWidth());
+    }
+
+    @Test
+    // Tests that every sprite is drawn from the one sheet rather than from a copy of its own.
+    public void testSpritesShareSheet() {
+        SpriteAtlas atlas = new SpriteAtlas(sheet);
+        assertSame(sheet, atlas.getSheet());
+        for (String name : SpriteAtlas.spriteNames()) {
+            assertSame(sheet, atlas.get(name).getImage(), name + " should be drawn from the sheet");
+        }
+
+        TestPApplet app = new TestPApplet();
+        atlas.get("wall2").draw(app, 64, 96);
+        TestPApplet.ImageCall call = app.imageCalls.get(0);
+        assertSame(sheet, call.img);
+        assertEquals(64, call.x, 0.001);
+        assertEquals(96, call.y, 0.001);
+        assertEquals(99, call.u1);
+        assertEquals(67, call.v1);
+        assertEquals(99 + App.CELLSIZE, call.u2);
+        assertEquals(67 + App.CELLSIZE, call.v2);
+    }
+
+    @Test
+    // Tests that the magenta colour key becomes transparent on the sheet.
+    public void testColourKeyIsTransparent() {
+        setPixel(1, 157, SpriteAtlas.COLOUR_KEY); // Top-left corner of ball0
+        setPixel(2, 157, 0xFF808080);
+        SpriteAtlas atlas = new SpriteAtlas(sheet);
+
+        assertEquals(PConstants.ARGB, sheet.format);
+        PImage ball = atlas.get("ball0").copyImage();
+        assertEquals(0, ball.pixels[0]);
+        assertEquals(0xFF808080, ball.pixels[1]);
+    }
+
+    @Test
+    // Tests that names without a sprite on the sheet are reported as missing.
+    public void testMissingSprite() {
+        SpriteAtlas atlas = new SpriteAtlas(sheet);
+        assertNull(atlas.get("speedTile1"));
+        assertFalse(SpriteAtlas.hasSprite("speedTile1"));
+        assertTrue(SpriteAtlas.hasSprite("hole4"));
+        assertTrue(SpriteAtlas.hasSprite("tile"));
+    }
+}
@@ -0,0 +1,57 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteTest {
+    private PImage sheet;
+    private TestPApplet app;
+
+    @BeforeEach
+    public void setUp() {
+        sheet = new PImage(8, 8, PImage.ARGB);
+        for (int i = 0; i < sheet.pixels.length; i++) {
+            sheet.pixels[i] = 0xFF000000 | i;
+        }
+        app = new TestPApplet();
+    }
+
+    @Test
+    // Tests that a sprite is drawn from its region of the backing image, not from a copy.
+    public void testDrawRegion() {
+        Sprite sprite = new Sprite(sheet, 2, 3, 4, 5);
+        sprite.draw(app, 10, 20);
+        TestPApplet.ImageCall call = app.imageCalls.get(0);
+        assertSame(sheet, call.img);
+        assertEquals(10, call.x, 0.001);
+        assertEquals(20, call.y, 0.001);
+        assertEquals(2, call.u1);
+        assertEquals(3, call.v1);
+        assertEquals(6, call.u2);
+        assertEquals(8, call.v2);
+    }
+
+    @Test
+    // Tests that a sprite made from a whole image covers all of it.
+    public void testWholeImage() {
+        Sprite sprite = new Sprite(sheet);
+        assertEquals(8, sprite.getWidth());
+        assertEquals(8, sprite.getHeight());
+        sprite.draw(app, 0, 0);
+        assertEquals(8, app.imageCalls.get(0).u2);
+        assertEquals(8, app.imageCalls.get(0).v2);
+    }
+
+    @Test
+    // Tests that copying a sprite gives an image of just its region.
+    public void testCopyImage() {
+        PImage copy = new Sprite(sheet, 2, 3, 4, 5).copyImage();
+        assertNotSame(sheet, copy);
+        assertEquals(4, copy.width);
+        assertEquals(5, copy.height);
+        assertEquals(sheet.pixels[3 * 8 + 2], copy.pixels[0]);
+    }
+}
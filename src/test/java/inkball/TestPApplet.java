@@ -25,6 +25,29 @@ class TestPApplet extends PApplet {
         imageCalls.add(new ImageCall(img, x, y));
     }
 
+    /**
+     * Overrides the image method that draws a region of an image, as sprites on the sprite sheet
+     * are drawn, to capture each call and its parameters.
+     * @param img The image the region is drawn from
+     * @param x The x-coordinate to draw at
+     * @param y The y-coordinate to draw at
+     * @param w The width to draw at
+     * @param h The height to draw at
+     * @param u1 The left edge of the region on the image
+     * @param v1 The top edge of the region on the image
+     * @param u2 The right edge of the region on the image
+     * @param v2 The bottom edge of the region on the image
+     */
+    @Override
+    public void image(PImage img, float x, float y, float w, float h, int u1, int v1, int u2, int v2) {
+        ImageCall call = new ImageCall(img, x, y);
+        call.u1 = u1;
+        call.v1 = v1;
+        call.u2 = u2;
+        call.v2 = v2;
+        imageCalls.add(call);
+    }
+
     /**
      * Internal class to store the parameters of image method calls.
      */
@@ -32,6 +55,7 @@ class TestPApplet extends PApplet {
         PImage img;
         float x;
         float y;
+        int u1, v1, u2, v2; // The region of the image that was drawn, if only a region was
 
         /**
          * Constructor for ImageCall.
@@ -0,0 +1,49 @@
+package inkball;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import processing.core.PImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TileTemplateTest {
+    private TestPApplet app;
+    private Sprite image;
+
+    @BeforeEach
+    public void setUp() {
+        app = new TestPApplet();
+        image = new Sprite(new PImage(App.CELLSIZE, App.CELLSIZE, PImage.ARGB));
+    }
+
+    @Test
+    // Tests that a template keeps its kind, image and whether the board draws it.
+    public void testTemplateProperties() {
+        TileTemplate floor = new TileTemplate("floor", image, true);
+        assertEquals("floor", floor.getKind());
+        assertSame(image, floor.getImage());
+        assertTrue(floor.isDrawnWithBoard());
+        assertFalse(new TileTemplate("covered", image, false).isDrawnWithBoard());
+    }
+
+    @Test
+    // Tests that one template draws any cell at that cell's position.
+    public void testDrawAtCell() {
+        TileTemplate floor = new TileTemplate("floor", image, true);
+        floor.draw(app, 2, 3);
+        floor.draw(app, 5, 0);
+        assertEquals(2, app.imageCalls.size());
+        assertSame(image.getImage(), app.imageCalls.get(0).img);
+        assertEquals(2 * App.CELLSIZE, app.imageCalls.get(0).x, 0.001);
+        assertEquals(3 * App.CELLSIZE, app.imageCalls.get(0).y, 0.001);
+        assertEquals(5 * App.CELLSIZE, app.imageCalls.get(1).x, 0.001);
+        assertEquals(0, app.imageCalls.get(1).y, 0.001);
+    }
+
+    @Test
+    // Tests that a template without an image, as in a headless run, draws nothing.
+    public void testDrawWithoutImage() {
+        new TileTemplate("floor", null, true).draw(app, 1, 1);
+        assertTrue(app.imageCalls.isEmpty());
+    }
+}
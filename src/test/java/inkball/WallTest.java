@@ -3,14 +3,13 @@ package inkball;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import processing.core.PApplet;
-import processing.core.PImage;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class WallTest {
     private App app;
     private Wall wall;
     private Ball ball;
-    private PImage mockImage;
+    private Sprite mockImage;
 
     @BeforeEach
     public void setUp() {
@@ -18,7 +17,7 @@ public class WallTest {
         app.noLoop();
         PApplet.runSketch(new String[]{"Test"}, app);
         app.setup();
-        mockImage = app.createImage(32, 32, PApplet.RGB);
+        mockImage = new Sprite(app.createImage(32, 32, PApplet.RGB));
         wall = new Wall(1, 1, mockImage, 1);
         ball = new Ball(2, 2, mockImage, 0);
         App.random.setSeed(12345);
@@ -77,6 +76,67 @@ public class WallTest {
         assertEquals(2, ball.getType());
     }
 
+    @Test
+    // Test that a fast ball which would jump over the wall in one step is caught by the sweep
+    public void testWallImpactTimeFastBall() {
+        ball.setRadius(12);
+        ball.setX(wall.getX() * App.CELLSIZE - 20);
+        ball.setY(wall.getY() * App.CELLSIZE + App.CELLSIZE / 2f);
+        ball.setVx(80);
+        ball.setVy(0);
+
+        // The ball's edge reaches the left face after 8 of its 80 pixels
+        assertEquals(0.1f, wall.impactTime(ball), 1e-4f);
+    }
+
+    @Test
+    // Test that the sweep hits the rounded corner of the wall rather than its bounding box
+    public void testWallImpactTimeCorner() {
+        float left = wall.getX() * App.CELLSIZE;
+        float top = wall.getY() * App.CELLSIZE;
+        ball.setRadius(12);
+        ball.setX(left - 10);
+        ball.setY(top - 20);
+        ball.setVx(0);
+        ball.setVy(40);
+
+        // Passes 10 pixels left of the corner, so it touches once it is within 12 pixels of it
+        float expected = (20 - (float) Math.sqrt(12 * 12 - 10 * 10)) / 40;
+        assertEquals(expected, wall.impactTime(ball), 1e-4f);
+
+        ball.setX(left - 13);
+        assertEquals(Collidable.NO_IMPACT, wall.impactTime(ball), "Ball passing beside the wall should not touch it");
+    }
+
+    @Test
+    // Test that the sweep ignores balls moving away from, or already overlapping, the wall
+    public void testWallImpactTimeNoImpact() {
+        ball.setRadius(12);
+        ball.setX(wall.getX() * App.CELLSIZE - 20);
+        ball.setY(wall.getY() * App.CELLSIZE + App.CELLSIZE / 2f);
+        ball.setVx(-80);
+        ball.setVy(0);
+        assertEquals(Collidable.NO_IMPACT, wall.impactTime(ball));
+
+        ball.setX(wall.getX() * App.CELLSIZE);
+        ball.setVx(80);
+        assertEquals(Collidable.NO_IMPACT, wall.impactTime(ball));
+    }
+
+    @Test
+    // Test that bouncing a ball swept into contact reflects its velocity and applies the wall colour
+    public void testWallBounceAtContact() {
+        ball.setRadius(12);
+        ball.setX(wall.getX() * App.CELLSIZE - 12);
+        ball.setY(wall.getY() * App.CELLSIZE + App.CELLSIZE / 2f);
+        ball.setVx(3);
+        ball.setVy(1);
+        wall.bounce(ball);
+        assertEquals(-3, ball.getVx(), 1e-4f);
+        assertEquals(1, ball.getVy(), 1e-4f);
+        assertEquals(1, ball.getType());
+    }
+
     @Test
     public void testWallUpdate() {
         // Wall doesn't need to update, so this method should do nothing